@@ -0,0 +1,228 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.movie.MovieCardDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Độ trễ build 4 rail trang chủ trên MySQL theo kích thước catalog:
+ * cách cũ (đọc cả bảng movies kèm thể loại rồi lọc + sort trong Java) và truy vấn top-N
+ * (status + ORDER BY + LIMIT trên index, chỉ đọc cột của thẻ phim) như MovieRepository.
+ * <p>
+ * Cần MySQL chạy sẵn: -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3306/demo?user=root&amp;password=...
+ * Benchmark tự tạo và seed bảng riêng bench_movies / bench_categories, không đụng bảng của ứng dụng.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HomeQueryBenchmark {
+
+    private static final int BANNER_LIMIT = 5;
+    private static final int MOVIE_LIST_LIMIT = 12;
+    private static final String ACTIVE_STATUS = "ACTIVE";
+    private static final double MIN_TRENDING_RATING = 4.0;
+    private static final int CATEGORY_COUNT = 20;
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private static final String CARD_SELECT = "SELECT m.movie_id, m.title, m.thumbnail_url, m.poster_url, m.rating, " +
+            "m.view_count, c.category_id, c.category_name, m.created_date " +
+            "FROM bench_movies m LEFT JOIN bench_categories c ON c.category_id = m.category_id ";
+    private static final String BANNER_SQL = CARD_SELECT + "WHERE m.status = ? AND m.poster_url IS NOT NULL " +
+            "AND m.poster_url <> '' ORDER BY m.rating DESC, m.view_count DESC LIMIT ?";
+    private static final String NEW_SQL = CARD_SELECT + "WHERE m.status = ? ORDER BY m.created_date DESC LIMIT ?";
+    private static final String POPULAR_SQL = CARD_SELECT + "WHERE m.status = ? ORDER BY m.view_count DESC LIMIT ?";
+    private static final String TRENDING_SQL = CARD_SELECT + "WHERE m.status = ? AND m.rating >= ? " +
+            "ORDER BY m.rating DESC, m.view_count DESC LIMIT ?";
+    // findAll() cũ: cả entity Movie (kể cả description) + Category EAGER
+    private static final String FIND_ALL_SQL = "SELECT m.*, c.category_name, c.description AS category_description " +
+            "FROM bench_movies m LEFT JOIN bench_categories c ON c.category_id = m.category_id";
+
+    @Param({"10000", "100000"})
+    public int movieCount;
+
+    private Connection connection;
+    private PreparedStatement bannerStatement;
+    private PreparedStatement newStatement;
+    private PreparedStatement popularStatement;
+    private PreparedStatement trendingStatement;
+    private PreparedStatement findAllStatement;
+
+    private record LegacyMovie(MovieCardDTO card, String status, String description) {
+    }
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc-url");
+        if (url == null) {
+            throw new IllegalStateException("Set -Dbenchmark.jdbc-url to a MySQL database");
+        }
+        connection = DriverManager.getConnection(url);
+        createTables();
+        seed();
+        bannerStatement = connection.prepareStatement(BANNER_SQL);
+        newStatement = connection.prepareStatement(NEW_SQL);
+        popularStatement = connection.prepareStatement(POPULAR_SQL);
+        trendingStatement = connection.prepareStatement(TRENDING_SQL);
+        findAllStatement = connection.prepareStatement(FIND_ALL_SQL);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void legacyFindAllAndSort(Blackhole blackhole) throws SQLException {
+        List<LegacyMovie> all = new ArrayList<>();
+        try (ResultSet rs = findAllStatement.executeQuery()) {
+            while (rs.next()) {
+                all.add(new LegacyMovie(toCard(rs), rs.getString("status"), rs.getString("description")));
+            }
+        }
+        List<MovieCardDTO> active = all.stream()
+                .filter(movie -> ACTIVE_STATUS.equals(movie.status()))
+                .map(LegacyMovie::card)
+                .collect(Collectors.toList());
+        Comparator<MovieCardDTO> byRatingThenViews = Comparator
+                .comparing(MovieCardDTO::rating, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(MovieCardDTO::viewCount, Comparator.nullsLast(Comparator.reverseOrder()));
+        blackhole.consume(active.stream()
+                .filter(movie -> movie.posterUrl() != null && !movie.posterUrl().isEmpty())
+                .sorted(byRatingThenViews)
+                .limit(BANNER_LIMIT)
+                .collect(Collectors.toList()));
+        blackhole.consume(active.stream()
+                .sorted(Comparator.comparing(MovieCardDTO::createdDate, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(MOVIE_LIST_LIMIT)
+                .collect(Collectors.toList()));
+        blackhole.consume(active.stream()
+                .sorted(Comparator.comparing(MovieCardDTO::viewCount, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(MOVIE_LIST_LIMIT)
+                .collect(Collectors.toList()));
+        blackhole.consume(active.stream()
+                .filter(movie -> movie.rating() != null && movie.rating() >= MIN_TRENDING_RATING)
+                .sorted(byRatingThenViews)
+                .limit(MOVIE_LIST_LIMIT)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void indexedTopN(Blackhole blackhole) throws SQLException {
+        bannerStatement.setString(1, ACTIVE_STATUS);
+        bannerStatement.setInt(2, BANNER_LIMIT);
+        blackhole.consume(readCards(bannerStatement));
+        newStatement.setString(1, ACTIVE_STATUS);
+        newStatement.setInt(2, MOVIE_LIST_LIMIT);
+        blackhole.consume(readCards(newStatement));
+        popularStatement.setString(1, ACTIVE_STATUS);
+        popularStatement.setInt(2, MOVIE_LIST_LIMIT);
+        blackhole.consume(readCards(popularStatement));
+        trendingStatement.setString(1, ACTIVE_STATUS);
+        trendingStatement.setDouble(2, MIN_TRENDING_RATING);
+        trendingStatement.setInt(3, MOVIE_LIST_LIMIT);
+        blackhole.consume(readCards(trendingStatement));
+    }
+
+    private List<MovieCardDTO> readCards(PreparedStatement statement) throws SQLException {
+        List<MovieCardDTO> cards = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                cards.add(toCard(rs));
+            }
+        }
+        return cards;
+    }
+
+    private MovieCardDTO toCard(ResultSet rs) throws SQLException {
+        double rating = rs.getDouble("rating");
+        Double ratingValue = rs.wasNull() ? null : rating;
+        Timestamp createdDate = rs.getTimestamp("created_date");
+        return new MovieCardDTO(rs.getLong("movie_id"), rs.getString("title"), rs.getString("thumbnail_url"),
+                rs.getString("poster_url"), ratingValue, rs.getLong("view_count"), rs.getLong("category_id"),
+                rs.getString("category_name"), createdDate != null ? createdDate.toInstant() : null);
+    }
+
+    // Cùng cột và index với entity Movie / Category
+    private void createTables() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS bench_categories (category_id BIGINT PRIMARY KEY, " +
+                    "category_name VARCHAR(255) NOT NULL, description VARCHAR(255))");
+            statement.execute("CREATE TABLE IF NOT EXISTS bench_movies (movie_id BIGINT PRIMARY KEY, " +
+                    "title VARCHAR(255) NOT NULL, description TEXT, thumbnail_url VARCHAR(255), " +
+                    "poster_url VARCHAR(255), trailer_url VARCHAR(255), video_url VARCHAR(255), duration INT, " +
+                    "release_date DATE, rating DOUBLE, view_count BIGINT, status VARCHAR(255), category_id BIGINT, " +
+                    "created_date DATETIME(6), " +
+                    "INDEX idx_movies_status_created (status, created_date), " +
+                    "INDEX idx_movies_status_view (status, view_count), " +
+                    "INDEX idx_movies_status_rating_view (status, rating, view_count))");
+        }
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM bench_movies")) {
+            rs.next();
+            if (rs.getInt(1) == movieCount) {
+                return;
+            }
+            statement.execute("TRUNCATE TABLE bench_movies");
+            statement.execute("TRUNCATE TABLE bench_categories");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement category = connection.prepareStatement(
+                "INSERT INTO bench_categories (category_id, category_name, description) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= CATEGORY_COUNT; i++) {
+                category.setLong(1, i);
+                category.setString(2, "Category " + i);
+                category.setString(3, "Description of category " + i);
+                category.addBatch();
+            }
+            category.executeBatch();
+        }
+        Random random = new Random(42);
+        Instant now = Instant.now();
+        String description = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(6);
+        try (PreparedStatement movie = connection.prepareStatement("INSERT INTO bench_movies (movie_id, title, " +
+                "description, thumbnail_url, poster_url, trailer_url, video_url, duration, release_date, rating, " +
+                "view_count, status, category_id, created_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= movieCount; i++) {
+                movie.setLong(1, i);
+                movie.setString(2, "Movie " + i);
+                movie.setString(3, description);
+                movie.setString(4, "thumb/" + i + ".jpg");
+                movie.setString(5, random.nextInt(4) == 0 ? null : "poster/" + i + ".jpg");
+                movie.setString(6, "trailer/" + i + ".mp4");
+                movie.setString(7, "video/" + i + ".m3u8");
+                movie.setInt(8, 60 + random.nextInt(120));
+                movie.setDate(9, Date.valueOf("2020-01-01"));
+                movie.setDouble(10, Math.round(random.nextDouble() * 50) / 10.0);
+                movie.setLong(11, random.nextInt(1_000_000));
+                movie.setString(12, random.nextInt(10) == 0 ? "INACTIVE" : ACTIVE_STATUS);
+                movie.setLong(13, 1 + random.nextInt(CATEGORY_COUNT));
+                movie.setTimestamp(14, Timestamp.from(now.minusSeconds(random.nextInt(365 * 24 * 3600))));
+                movie.addBatch();
+                if (i % SEED_BATCH_SIZE == 0) {
+                    movie.executeBatch();
+                }
+            }
+            movie.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE bench_movies");
+        }
+    }
+}
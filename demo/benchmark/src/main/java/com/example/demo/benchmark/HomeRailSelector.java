@@ -0,0 +1,56 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.Movie;
+import com.example.demo.utils.BoundedTopK;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chọn các rail trang chủ (banner, mới, phổ biến, trending) từ một danh sách phim trong bộ nhớ
+ * chỉ với một vòng lặp, đưa vào bốn heap giới hạn kích thước thay vì sắp xếp cả danh sách bốn lần.
+ * Thứ tự kết quả giống pipeline sort cũ (giá trị null xếp cuối, bằng nhau giữ thứ tự đầu vào).
+ * Trang chủ production đọc từng rail bằng truy vấn ORDER BY + LIMIT trên index nên chỉ benchmark dùng lớp này.
+ */
+public final class HomeRailSelector {
+
+    private static final String ACTIVE_STATUS = "ACTIVE";
+
+    private HomeRailSelector() {
+    }
+
+    public record HomeRails(List<Movie> banners, List<Movie> newMovies, List<Movie> popularMovies,
+                            List<Movie> trendingMovies) {
+    }
+
+    public static HomeRails select(Collection<Movie> movies, int bannerLimit, int listLimit, double minTrendingRating) {
+        BoundedTopK<Movie> banners = new BoundedTopK<>(bannerLimit);
+        BoundedTopK<Movie> newMovies = new BoundedTopK<>(listLimit);
+        BoundedTopK<Movie> popularMovies = new BoundedTopK<>(listLimit);
+        BoundedTopK<Movie> trendingMovies = new BoundedTopK<>(listLimit);
+
+        for (Movie movie : movies) {
+            if (!ACTIVE_STATUS.equals(movie.getStatus())) {
+                continue;
+            }
+            Double rating = movie.getRating();
+            double ratingKey = rating != null ? rating : Double.NEGATIVE_INFINITY;
+            long viewKey = movie.getViewCount() != null ? movie.getViewCount() : Long.MIN_VALUE;
+            Instant createdDate = movie.getCreatedDate();
+            double createdKey = createdDate != null ? createdDate.toEpochMilli() : Double.NEGATIVE_INFINITY;
+
+            if (movie.getPosterUrl() != null && !movie.getPosterUrl().isEmpty()) {
+                banners.offer(movie, ratingKey, viewKey);
+            }
+            newMovies.offer(movie, createdKey, 0L);
+            popularMovies.offer(movie, viewKey, 0L);
+            if (rating != null && rating >= minTrendingRating) {
+                trendingMovies.offer(movie, ratingKey, viewKey);
+            }
+        }
+
+        return new HomeRails(banners.toSortedList(), newMovies.toSortedList(),
+                popularMovies.toSortedList(), trendingMovies.toSortedList());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.Category;
+import com.example.demo.domain.Movie;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * So sánh chọn rail trang chủ từ danh sách trong bộ nhớ:
+ * pipeline cũ (lọc ACTIVE + 4 lần sort với Comparator boxed) và HomeRailSelector (một vòng lặp, 4 heap giới hạn).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HomeRailsBenchmark {
+
+    private static final int BANNER_LIMIT = 5;
+    private static final int MOVIE_LIST_LIMIT = 12;
+    private static final String ACTIVE_STATUS = "ACTIVE";
+    private static final double MIN_TRENDING_RATING = 4.0;
+
+    @Param({"1000", "10000", "100000"})
+    public int movieCount;
+
+    private List<Movie> movies;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Category category = Category.builder().categoryId(1L).categoryName("Hành động").build();
+        Instant now = Instant.now();
+        movies = new ArrayList<>(movieCount);
+        for (int i = 0; i < movieCount; i++) {
+            Movie movie = Movie.builder()
+                    .movieId((long) i)
+                    .title("Movie " + i)
+                    .posterUrl(random.nextInt(4) == 0 ? null : "poster/" + i + ".jpg")
+                    .rating(random.nextInt(20) == 0 ? null : Math.round(random.nextDouble() * 50) / 10.0)
+                    .viewCount((long) random.nextInt(1_000_000))
+                    .status(random.nextInt(10) == 0 ? "INACTIVE" : ACTIVE_STATUS)
+                    .category(category)
+                    .build();
+            movie.setCreatedDate(now.minusSeconds(random.nextInt(365 * 24 * 3600)));
+            movies.add(movie);
+        }
+    }
+
+    @Benchmark
+    public void streamPipeline(Blackhole blackhole) {
+        List<Movie> active = movies.stream()
+                .filter(movie -> ACTIVE_STATUS.equals(movie.getStatus()))
+                .collect(Collectors.toList());
+        blackhole.consume(active.stream()
+                .filter(movie -> movie.getPosterUrl() != null && !movie.getPosterUrl().isEmpty())
+                .sorted(Comparator
+                        .comparing(Movie::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Movie::getViewCount, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(BANNER_LIMIT)
+                .collect(Collectors.toList()));
+        blackhole.consume(active.stream()
+                .sorted(Comparator.comparing(Movie::getCreatedDate, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(MOVIE_LIST_LIMIT)
+                .collect(Collectors.toList()));
+        blackhole.consume(active.stream()
+                .sorted(Comparator.comparing(Movie::getViewCount, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(MOVIE_LIST_LIMIT)
+                .collect(Collectors.toList()));
+        blackhole.consume(active.stream()
+                .filter(movie -> movie.getRating() != null && movie.getRating() >= MIN_TRENDING_RATING)
+                .sorted(Comparator
+                        .comparing(Movie::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Movie::getViewCount, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(MOVIE_LIST_LIMIT)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public HomeRailSelector.HomeRails singlePassTopK() {
+        return HomeRailSelector.select(movies, BANNER_LIMIT, MOVIE_LIST_LIMIT, MIN_TRENDING_RATING);
+    }
+}
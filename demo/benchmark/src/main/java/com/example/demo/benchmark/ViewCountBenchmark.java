@@ -0,0 +1,61 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.utils.StripedCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * So sánh số lượt tăng view / giây khi nhiều thread cùng tăng một tập phim nhỏ (hot movies):
+ * StripedCounter (LongAdder theo phim) với AtomicLong theo phim và một map dùng synchronized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class ViewCountBenchmark {
+
+    @Param({"1", "10", "1000"})
+    public int hotMovies;
+
+    private StripedCounter stripedCounter;
+    private ConcurrentHashMap<Long, AtomicLong> atomicCounters;
+    private Map<Long, Long> synchronizedCounters;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        stripedCounter = new StripedCounter(200_000);
+        atomicCounters = new ConcurrentHashMap<>();
+        synchronizedCounters = new HashMap<>();
+    }
+
+    private long nextMovieId() {
+        return ThreadLocalRandom.current().nextInt(hotMovies);
+    }
+
+    @Benchmark
+    public boolean stripedCounter() {
+        return stripedCounter.increment(nextMovieId());
+    }
+
+    @Benchmark
+    public long atomicLongPerMovie() {
+        return atomicCounters.computeIfAbsent(nextMovieId(), id -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Benchmark
+    public Long synchronizedMap() {
+        long movieId = nextMovieId();
+        synchronized (synchronizedCounters) {
+            return synchronizedCounters.merge(movieId, 1L, Long::sum);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.demo.config;
 
+import com.example.demo.enums.PopularRanking;
+import com.example.demo.enums.TokenValidationMode;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,6 +14,20 @@ public class ApplicationProperties {
 
     private SecurityCfg security;
 
+    private HomeCfg home = new HomeCfg();
+
+    private ViewsCfg views = new ViewsCfg();
+
+    private TrendingCfg trending = new TrendingCfg();
+
+    private MoviesCfg movies = new MoviesCfg();
+
+    private WatchCfg watch = new WatchCfg();
+
+    private RelatedCfg related = new RelatedCfg();
+
+    private ChangesCfg changes = new ChangesCfg();
+
     @Getter
     @Setter
     public static class SecurityCfg {
@@ -24,5 +40,127 @@ public class ApplicationProperties {
 
         @JsonProperty("refresh-token-validity-in-seconds")
         private Long refreshTokenValidityInSeconds = 86400L * 7; // 7 days default
+
+        @JsonProperty("token-cache-max-size")
+        private Long tokenCacheMaxSize = 100000L; // số token đã xác thực tối đa giữ trong cache local
+
+        @JsonProperty("token-cache-ttl-seconds")
+        private Long tokenCacheTtlSeconds = 60L; // thời gian tối đa một token được tin mà không hỏi lại Redis
+
+        @JsonProperty("validation-mode")
+        private TokenValidationMode validationMode = TokenValidationMode.REDIS; // cách kiểm tra token bị thu hồi
+
+        @JsonProperty("revocation-sync-interval-ms")
+        private Long revocationSyncIntervalMs = 5000L; // chu kỳ đọc thu hồi mới từ stream Redis, ghi lại thu hồi lỗi và dọn jti hết hạn
+    }
+
+    @Getter
+    @Setter
+    public static class HomeCfg {
+
+        @JsonProperty("refresh-interval-ms")
+        private Long refreshIntervalMs = 15000L; // chu kỳ rebuild snapshot trang chủ
+
+        @JsonProperty("cache-fresh-ttl-seconds")
+        private Long cacheFreshTtlSeconds = 30L; // sau thời gian này một node sẽ tính lại dữ liệu
+
+        @JsonProperty("cache-stale-ttl-seconds")
+        private Long cacheStaleTtlSeconds = 600L; // dữ liệu cũ vẫn được dùng trong lúc node khác tính lại
+
+        @JsonProperty("cache-lock-ttl-seconds")
+        private Long cacheLockTtlSeconds = 10L;
+
+        @JsonProperty("popular-ranking")
+        private PopularRanking popularRanking = PopularRanking.VIEW_COUNT; // tín hiệu xếp hạng rail phổ biến
+
+        @JsonProperty("unique-viewer-days")
+        private Integer uniqueViewerDays = 7; // số ngày tính người xem duy nhất khi xếp hạng
+    }
+
+    @Getter
+    @Setter
+    public static class ViewsCfg {
+
+        @JsonProperty("flush-interval-ms")
+        private Long flushIntervalMs = 5000L; // chu kỳ flush lượt xem xuống database
+
+        @JsonProperty("unique-flush-interval-ms")
+        private Long uniqueFlushIntervalMs = 1000L; // chu kỳ PFADD người xem duy nhất lên Redis
+    }
+
+    @Getter
+    @Setter
+    public static class TrendingCfg {
+
+        @JsonProperty("half-life-hours")
+        private Double halfLifeHours = 24.0; // sau mỗi chu kỳ này điểm trending giảm một nửa
+
+        @JsonProperty("top-k")
+        private Integer topK = 50; // số phim giữ trong top-K
+
+        @JsonProperty("persist-interval-ms")
+        private Long persistIntervalMs = 300000L; // chu kỳ lưu top-K lên Redis
+    }
+
+    @Getter
+    @Setter
+    public static class MoviesCfg {
+
+        @JsonProperty("cache-max-size")
+        private Long cacheMaxSize = 10000L; // số MovieDTO tối đa giữ trong cache local
+
+        @JsonProperty("cache-ttl-seconds")
+        private Long cacheTtlSeconds = 300L; // giới hạn độ cũ của viewCount / rating trong cache
+
+        @JsonProperty("batch-max-size")
+        private Integer batchMaxSize = 100; // số id tối đa cho một request batch
+    }
+
+    @Getter
+    @Setter
+    public static class WatchCfg {
+
+        @JsonProperty("flush-interval-ms")
+        private Long flushIntervalMs = 10000L; // chu kỳ flush vị trí xem mới nhất xuống database
+
+        @JsonProperty("history-ttl-days")
+        private Integer historyTtlDays = 30; // thời gian giữ lịch sử xem trên Redis kể từ lần xem cuối
+
+        @JsonProperty("rail-limit")
+        private Integer railLimit = 20; // số phim tối đa trong rail "xem tiếp"
+
+        @JsonProperty("completed-ratio")
+        private Double completedRatio = 0.95; // xem quá tỉ lệ này được coi là đã xem xong
+    }
+
+    @Getter
+    @Setter
+    public static class RelatedCfg {
+
+        @JsonProperty("rebuild-interval-ms")
+        private Long rebuildIntervalMs = 3600000L; // chu kỳ build lại chỉ mục phim liên quan
+
+        @JsonProperty("top-k")
+        private Integer topK = 20; // số phim liên quan giữ cho mỗi phim
+
+        @JsonProperty("max-items-per-user")
+        private Integer maxItemsPerUser = 30; // số phim xem gần nhất của mỗi user dùng để đếm cặp xem chung
+    }
+
+    @Getter
+    @Setter
+    public static class ChangesCfg {
+
+        @JsonProperty("page-size")
+        private Integer pageSize = 500; // số dòng nhật ký tối đa mỗi lần đồng bộ
+
+        @JsonProperty("retention-days")
+        private Integer retentionDays = 30; // nhật ký cũ hơn bị xóa, client quá hạn phải tải lại toàn bộ
+
+        @JsonProperty("purge-cron")
+        private String purgeCron = "0 30 3 * * *"; // lịch xóa nhật ký cũ
+
+        @JsonProperty("sequence-interval-ms")
+        private Long sequenceIntervalMs = 1000L; // chu kỳ cấp version cho thay đổi mới, client thấy thay đổi chậm tối đa chừng này
     }
 }
@@ -1,11 +1,18 @@
 package com.example.demo.config;
 
+import com.example.demo.security.jwt.TokenAuthenticationCache;
+import com.example.demo.security.jwt.TokenRevocationRegistry;
+import com.example.demo.service.SecondLevelCacheService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -32,4 +39,39 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    // StringRedisTemplate cho các cấu trúc Redis thuần chuỗi (HyperLogLog, ZSET, hash...)
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    // RedisTemplate lưu value dạng byte[] thô (payload đã serialize sẵn, không qua Jackson)
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    // Container pub/sub: nhận thông báo xóa second-level cache, cache token và jti bị thu hồi từ các node khác
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       SecondLevelCacheService secondLevelCacheService,
+                                                                       TokenAuthenticationCache tokenAuthenticationCache,
+                                                                       TokenRevocationRegistry tokenRevocationRegistry) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(secondLevelCacheService, new ChannelTopic(SecondLevelCacheService.EVICT_CHANNEL));
+        container.addMessageListener(tokenAuthenticationCache, new ChannelTopic(TokenAuthenticationCache.EVICT_CHANNEL));
+        container.addMessageListener(tokenRevocationRegistry, new ChannelTopic(TokenRevocationRegistry.REVOKED_CHANNEL));
+        return container;
+    }
+}
@@ -57,8 +57,8 @@ public class WebSocketMessageBrokerConfig implements WebSocketMessageBrokerConfi
                     String authorizationHeader = accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION);
                     if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
                         authorizationHeader = authorizationHeader.substring(7);
-                        if (tokenProvider.validateToken(authorizationHeader)) {
-                            Authentication authentication = tokenProvider.getAuthentication(authorizationHeader);
+                        Authentication authentication = tokenProvider.getVerifiedAuthentication(authorizationHeader);
+                        if (authentication != null) {
                             accessor.setUser(authentication);
                             SecurityContextHolder.getContext().setAuthentication(authentication);
                         }
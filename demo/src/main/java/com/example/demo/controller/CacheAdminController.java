@@ -0,0 +1,23 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CacheStatsDTO;
+import com.example.demo.exceptions.ResponseObject;
+import com.example.demo.service.SecondLevelCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin")
+public class CacheAdminController {
+
+    private final SecondLevelCacheService secondLevelCacheService;
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ResponseObject<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(ResponseObject.success(secondLevelCacheService.getStats()));
+    }
+}
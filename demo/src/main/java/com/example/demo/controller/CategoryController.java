@@ -0,0 +1,32 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.dto.search.CursorPage;
+import com.example.demo.enums.MovieSort;
+import com.example.demo.exceptions.ResponseObject;
+import com.example.demo.service.MovieBrowseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/public/categories")
+@RequiredArgsConstructor
+public class CategoryController {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final MovieBrowseService movieBrowseService;
+
+    @GetMapping("/{categoryId}/movies")
+    public ResponseEntity<ResponseObject<CursorPage<MovieCardDTO>>> browseCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(value = "sort", defaultValue = "newest") String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        CursorPage<MovieCardDTO> result = movieBrowseService.browseCategory(
+                categoryId, MovieSort.from(sort), cursor, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(ResponseObject.success(result));
+    }
+}
@@ -1,34 +1,79 @@
 package com.example.demo.controller;
 
-import com.example.demo.dto.movie.HomeResponseDTO;
 import com.example.demo.exceptions.ErrorMessage;
 import com.example.demo.exceptions.ResponseObject;
 import com.example.demo.service.MovieService;
+import com.example.demo.utils.JsonF;
+import com.example.demo.utils.SerializedPayload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
 @RestController
 @RequestMapping("/api/public")
 @RequiredArgsConstructor
 @Slf4j
 public class HomeController {
 
+    private static final String NORMALIZED_VIEW = "normalized";
+
     private final MovieService movieService;
 
     @GetMapping("/home")
-    public ResponseEntity<ResponseObject<HomeResponseDTO>> getHomeData() {
+    public ResponseEntity<byte[]> getHomeData(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestParam(value = "view", required = false) String view
+    ) {
         try {
-            HomeResponseDTO homeData = movieService.getHomeData();
-            return ResponseEntity.ok(ResponseObject.success(homeData));
+            // view=normalized: rail là danh sách id, phim gửi một lần trong map movies
+            SerializedPayload payload = NORMALIZED_VIEW.equalsIgnoreCase(view)
+                    ? movieService.getNormalizedHomePayload()
+                    : movieService.getHomePayload();
+            return writePayload(payload, ifNoneMatch, acceptEncoding);
         } catch (Exception e) {
             log.error("Error getting home data", e);
+            byte[] body = Objects.requireNonNull(JsonF.toJson(ResponseObject.error(ErrorMessage.UNHANDLED_ERROR, e.getMessage())))
+                    .getBytes(StandardCharsets.UTF_8);
             return ResponseEntity.internalServerError()
-                    .body(ResponseObject.error(ErrorMessage.UNHANDLED_ERROR, e.getMessage()));
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
         }
     }
-}
 
+    /**
+     * Ghi payload đã serialize sẵn: gửi bản gzip nếu client hỗ trợ, trả 304 nếu ETag của bản đó khớp.
+     */
+    private ResponseEntity<byte[]> writePayload(SerializedPayload payload, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = SerializedPayload.acceptsGzip(acceptEncoding);
+        String etag = payload.getEtag(gzip);
+        if (payload.matches(ifNoneMatch, gzip)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzipBody());
+        }
+        return builder.body(payload.getBody());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.movie.MovieImportResultDTO;
+import com.example.demo.exceptions.ResponseObject;
+import com.example.demo.service.MovieImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin")
+public class MovieAdminController {
+
+    private final MovieImportService movieImportService;
+
+    @PostMapping(value = "/movies/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResponseObject<MovieImportResultDTO>> importMovies(@RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(ResponseObject.success(movieImportService.importMovies(file)));
+    }
+}
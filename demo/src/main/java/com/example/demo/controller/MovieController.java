@@ -0,0 +1,110 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.movie.CatalogChangesDTO;
+import com.example.demo.dto.movie.MovieBatchRequest;
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.dto.movie.MovieDTO;
+import com.example.demo.enums.LeaderboardPeriod;
+import com.example.demo.exceptions.ResponseObject;
+import com.example.demo.security.SecurityUtils;
+import com.example.demo.service.MovieSearchService;
+import com.example.demo.service.RelatedMoviesService;
+import com.example.demo.service.CatalogChangeService;
+import com.example.demo.service.MovieLookupService;
+import com.example.demo.service.MovieService;
+import com.example.demo.service.ViewCountService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/public/movies")
+@RequiredArgsConstructor
+public class MovieController {
+
+    private static final int MAX_SEARCH_LIMIT = 50;
+
+    private final ViewCountService viewCountService;
+    private final MovieSearchService movieSearchService;
+    private final MovieLookupService movieLookupService;
+    private final RelatedMoviesService relatedMoviesService;
+    private final CatalogChangeService catalogChangeService;
+    private final MovieService movieService;
+
+    @GetMapping("/search")
+    public ResponseEntity<ResponseObject<List<MovieCardDTO>>> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        List<MovieCardDTO> result = movieSearchService.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+        return ResponseEntity.ok(ResponseObject.success(result));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ResponseObject<List<String>>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        List<String> result = movieSearchService.suggest(query, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+        return ResponseEntity.ok(ResponseObject.success(result));
+    }
+
+    @GetMapping("/popular")
+    public ResponseEntity<ResponseObject<List<MovieCardDTO>>> getPopularMovies(
+            @RequestParam(value = "period", defaultValue = "week") String period,
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        List<MovieCardDTO> result = movieService.getPopularMoviesByLeaderboard(
+                LeaderboardPeriod.from(period), Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+        return ResponseEntity.ok(ResponseObject.success(result));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ResponseObject<CatalogChangesDTO>> getChanges(
+            @RequestParam(value = "since", required = false) Long since
+    ) {
+        return ResponseEntity.ok(ResponseObject.success(catalogChangeService.getChanges(since)));
+    }
+
+    @GetMapping("/{movieId}")
+    public ResponseEntity<ResponseObject<MovieDTO>> getMovieDetail(@PathVariable Long movieId) {
+        return ResponseEntity.ok(ResponseObject.success(movieLookupService.getMovie(movieId)));
+    }
+
+    @GetMapping("/{movieId}/related")
+    public ResponseEntity<ResponseObject<List<MovieCardDTO>>> getRelatedMovies(
+            @PathVariable Long movieId,
+            @RequestParam(value = "limit", defaultValue = "12") int limit
+    ) {
+        List<MovieCardDTO> result = relatedMoviesService.getRelatedMovies(movieId, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+        return ResponseEntity.ok(ResponseObject.success(result));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ResponseObject<List<MovieDTO>>> getMovies(@RequestBody MovieBatchRequest request) {
+        return ResponseEntity.ok(ResponseObject.success(movieLookupService.getMoviesInOrder(request.movieIds())));
+    }
+
+    @PostMapping("/{movieId}/views")
+    public ResponseEntity<ResponseObject<Boolean>> recordView(
+            @PathVariable Long movieId,
+            HttpServletRequest request
+    ) {
+        viewCountService.recordView(movieId, resolveViewerId(request));
+        return ResponseEntity.ok(ResponseObject.success());
+    }
+
+    // User đăng nhập theo username; khách theo IP client. Sau load balancer getRemoteAddr() là IP đã được RemoteIpValve
+    // lấy từ X-Forwarded-For (server.forward-headers-strategy=native), chỉ qua các proxy tin cậy nên client không tự đặt được
+    private String resolveViewerId(HttpServletRequest request) {
+        Optional<String> username = SecurityUtils.getCurrentUserLogin();
+        if (username.isPresent()) {
+            return "u:" + username.get();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
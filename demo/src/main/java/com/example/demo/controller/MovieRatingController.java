@@ -0,0 +1,23 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.movie.MovieRatingDTO;
+import com.example.demo.dto.movie.RatingRequest;
+import com.example.demo.exceptions.ResponseObject;
+import com.example.demo.service.MovieRatingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/movies")
+public class MovieRatingController {
+
+    private final MovieRatingService movieRatingService;
+
+    @PostMapping("/{movieId}/rating")
+    public ResponseEntity<ResponseObject<MovieRatingDTO>> rate(@PathVariable Long movieId,
+                                                               @RequestBody RatingRequest request) {
+        return ResponseEntity.ok(ResponseObject.success(movieRatingService.rate(movieId, request.score())));
+    }
+}
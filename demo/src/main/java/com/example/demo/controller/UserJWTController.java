@@ -9,12 +9,13 @@ import com.example.demo.dto.login.UserProfileDTO;
 import com.example.demo.exceptions.ErrorMessage;
 import com.example.demo.exceptions.ResponseObject;
 import com.example.demo.security.CustomUserDetails;
+import com.example.demo.security.SecurityUtils;
 import com.example.demo.security.jwt.JWTFilter;
 import com.example.demo.security.jwt.TokenProvider;
+import com.example.demo.security.jwt.VerifiedToken;
 import com.example.demo.service.AuthService;
 import com.example.demo.service.MailService;
 import com.example.demo.service.UserService;
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -75,12 +76,12 @@ public class UserJWTController {
         }
 
         // Validate refresh token và lấy claims
-        Claims claims = tokenProvider.validateRefreshToken(refreshToken);
-        if (claims == null) {
+        VerifiedToken verifiedRefreshToken = tokenProvider.validateRefreshToken(refreshToken);
+        if (verifiedRefreshToken == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String username = claims.getSubject();
+        String username = verifiedRefreshToken.username();
 
         // Lấy thông tin User và tạo lại authentication
         try {
@@ -139,24 +140,15 @@ public class UserJWTController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(
-            @RequestHeader(value = "Authorization", required = false) String bearerToken,
-            @RequestBody(required = false) Map<String, String> requestBody
-    ) {
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            String token = bearerToken.substring(7);
-            tokenProvider.revokeToken(token); // Xoá access token trong Redis
-        }
+    public ResponseEntity<?> logout(@RequestBody(required = false) Map<String, String> requestBody) {
+        // Access token đã được JWTFilter verify, dùng lại kết quả thay vì parse lại
+        SecurityUtils.getCurrentVerifiedToken().ifPresent(tokenProvider::revokeToken); // Xoá access token trong Redis
 
         // Xoá refresh token nếu có
         if (requestBody != null && requestBody.containsKey("refreshToken")) {
             String refreshToken = requestBody.get("refreshToken");
             try {
-                Claims claims = tokenProvider.validateRefreshToken(refreshToken);
-                if (claims != null) {
-                    String username = claims.getSubject();
-                    tokenProvider.getRedisTokenService().deleteRefreshToken(username);
-                }
+                tokenProvider.revokeRefreshToken(refreshToken);
             } catch (Exception e) {
                 log.warn("Error deleting refresh token on logout", e);
             }
@@ -0,0 +1,31 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.movie.ContinueWatchingDTO;
+import com.example.demo.dto.movie.WatchProgressRequest;
+import com.example.demo.exceptions.ResponseObject;
+import com.example.demo.service.WatchProgressService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/movies")
+public class WatchProgressController {
+
+    private final WatchProgressService watchProgressService;
+
+    @PutMapping("/{movieId}/progress")
+    public ResponseEntity<ResponseObject<Boolean>> saveProgress(@PathVariable Long movieId,
+                                                                @RequestBody WatchProgressRequest request) {
+        watchProgressService.saveProgress(movieId, request.positionSeconds(), request.durationSeconds());
+        return ResponseEntity.ok(ResponseObject.success());
+    }
+
+    @GetMapping("/continue-watching")
+    public ResponseEntity<ResponseObject<List<ContinueWatchingDTO>>> getContinueWatching() {
+        return ResponseEntity.ok(ResponseObject.success(watchProgressService.getContinueWatching()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.domain;
+
+import com.example.demo.enums.CatalogChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Nhật ký thay đổi catalog cho client đồng bộ delta. version (auto increment) là phiên bản catalog tăng dần
+ * theo thứ tự commit. Chỉ bộ cấp version của CatalogChangeService ghi bằng JDBC, entity chỉ dùng để khai báo bảng.
+ */
+@Entity
+@Table(name = "catalog_changes", indexes = {
+        // Xóa nhật ký cũ theo changed_at
+        @Index(name = "idx_catalog_changes_changed_at", columnList = "changed_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long version;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private CatalogChangeType changeType;
+
+    // Giờ database lúc được cấp version, dùng để xóa nhật ký cũ
+    @Column(name = "changed_at", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)")
+    private Instant changedAt;
+}
@@ -0,0 +1,30 @@
+package com.example.demo.domain;
+
+import com.example.demo.enums.CatalogChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Thay đổi catalog chưa được cấp version. Được ghi bằng JDBC bởi CatalogChangeService,
+ * bộ cấp version chuyển các dòng đã commit sang catalog_changes theo thứ tự; entity chỉ dùng để khai báo bảng.
+ */
+@Entity
+@Table(name = "catalog_change_pending")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangePending {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private CatalogChangeType changeType;
+}
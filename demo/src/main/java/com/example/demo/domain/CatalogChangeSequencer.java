@@ -0,0 +1,22 @@
+package com.example.demo.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+/**
+ * Một dòng duy nhất được khóa (SELECT ... FOR UPDATE) trong suốt transaction cấp version của CatalogChangeService,
+ * để các node cấp version lần lượt và version nhỏ hơn luôn commit trước; entity chỉ dùng để khai báo bảng.
+ */
+@Entity
+@Table(name = "catalog_change_sequencer")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeSequencer {
+
+    @Id
+    private Integer id;
+}
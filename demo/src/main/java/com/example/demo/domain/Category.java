@@ -1,11 +1,17 @@
 package com.example.demo.domain;
 
+import com.example.demo.event.CatalogEntityListener;
+import com.example.demo.event.ReferenceDataEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@EntityListeners({CatalogEntityListener.class, ReferenceDataEntityListener.class})
 @Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Getter
 @Setter
 @Builder
@@ -1,5 +1,6 @@
 package com.example.demo.domain;
 
+import com.example.demo.event.CatalogEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -8,7 +9,15 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "movies")
+@EntityListeners(CatalogEntityListener.class)
+@Table(name = "movies", indexes = {
+        @Index(name = "idx_movies_status_created", columnList = "status, created_date"),
+        @Index(name = "idx_movies_status_view", columnList = "status, view_count"),
+        @Index(name = "idx_movies_status_rating_view", columnList = "status, rating, view_count"),
+        @Index(name = "idx_movies_category_created", columnList = "category_id, status, created_date, movie_id"),
+        @Index(name = "idx_movies_category_view", columnList = "category_id, status, view_count, movie_id"),
+        @Index(name = "idx_movies_category_rating", columnList = "category_id, status, rating, movie_id")
+})
 @Getter
 @Setter
 @Builder
@@ -45,7 +54,15 @@ public class Movie extends AbstractAuditingEntity {
     private LocalDate releaseDate;
 
     @Builder.Default
-    private Double rating = 0.0;
+    private Double rating = 0.0; // = ratingSum / ratingCount, cập nhật cùng câu UPDATE với sum / count
+
+    @Builder.Default
+    @Column(name = "rating_sum", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long ratingSum = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_count", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long ratingCount = 0L;
 
     @Builder.Default
     @Column(name = "view_count")
@@ -0,0 +1,31 @@
+package com.example.demo.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+@SuperBuilder
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "movie_ratings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_movie_ratings_user_movie", columnNames = {"user_id", "movie_id"})
+})
+public class MovieRating extends AbstractAuditingEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long ratingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Column(nullable = false)
+    private Integer score; // 1 - 5
+}
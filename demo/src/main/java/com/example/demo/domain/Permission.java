@@ -1,19 +1,25 @@
 package com.example.demo.domain;
 
+import com.example.demo.event.ReferenceDataEntityListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @SuperBuilder
 @NoArgsConstructor
 @Entity
+@EntityListeners(ReferenceDataEntityListener.class)
 @Table(name = "permissions")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "permission")
 public class Permission extends AbstractAuditingEntity {
 
     @Id
@@ -0,0 +1,42 @@
+package com.example.demo.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Vị trí xem gần nhất của người dùng cho từng phim. Chỉ được ghi theo lô bởi WatchProgressService
+ * (INSERT ... ON DUPLICATE KEY UPDATE), không đi qua auditing như các entity khác.
+ */
+@Entity
+@Table(name = "watch_progress", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_watch_progress_user_movie", columnNames = {"username", "movie_id"})
+}, indexes = {
+        @Index(name = "idx_watch_progress_user_updated", columnList = "username, updated_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Dùng username (có sẵn trong JWT) để heartbeat không phải tra cứu userId
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Column(name = "position_seconds", nullable = false)
+    private Integer positionSeconds;
+
+    @Column(name = "duration_seconds")
+    private Integer durationSeconds;
+
+    @Column(name = "updated_at", nullable = false)
+    private Long updatedAt; // epoch millis, so sánh trực tiếp khi upsert theo lô
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Thống kê Hibernate second-level cache theo từng region và query cache.
+ */
+public record CacheStatsDTO(List<RegionStats> regions, RegionStats queryCache) {
+
+    public record RegionStats(String region, long hits, long misses, long puts, double hitRatio) {
+
+        public static RegionStats of(String region, long hits, long misses, long puts) {
+            long total = hits + misses;
+            return new RegionStats(region, hits, misses, puts, total == 0 ? 0.0 : (double) hits / total);
+        }
+    }
+}
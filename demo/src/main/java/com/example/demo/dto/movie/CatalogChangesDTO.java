@@ -0,0 +1,22 @@
+package com.example.demo.dto.movie;
+
+import com.example.demo.enums.CatalogChangeType;
+
+import java.util.List;
+
+/**
+ * Một trang thay đổi catalog kể từ phiên bản client đang giữ.
+ *
+ * @param version       Phiên bản client gửi lại ở lần đồng bộ sau (since)
+ * @param hasMore       Còn thay đổi, gọi tiếp ngay với version mới
+ * @param resetRequired since đã cũ hơn thời gian lưu nhật ký, client phải tải lại toàn bộ
+ * @param changes       Thay đổi mới nhất của mỗi phim
+ */
+public record CatalogChangesDTO(long version, boolean hasMore, boolean resetRequired, List<Change> changes) {
+
+    /**
+     * @param movie Thẻ phim hiện tại, null khi phim đã bị xóa hoặc ngừng hoạt động (DELETED)
+     */
+    public record Change(long version, Long movieId, CatalogChangeType changeType, MovieCardDTO movie) {
+    }
+}
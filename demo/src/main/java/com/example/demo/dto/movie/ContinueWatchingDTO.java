@@ -0,0 +1,10 @@
+package com.example.demo.dto.movie;
+
+import java.time.Instant;
+
+/**
+ * Một phim trong rail "xem tiếp": thẻ phim và vị trí xem gần nhất.
+ */
+public record ContinueWatchingDTO(MovieCardDTO movie, Integer positionSeconds, Integer durationSeconds,
+                                  Instant updatedAt) {
+}
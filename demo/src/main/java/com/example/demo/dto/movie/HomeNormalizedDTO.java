@@ -0,0 +1,30 @@
+package com.example.demo.dto.movie;
+
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dữ liệu trang chủ dạng chuẩn hóa: mỗi rail chỉ là danh sách movieId,
+ * thông tin phim gửi một lần trong movies (movieId -> thẻ phim).
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HomeNormalizedDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> banners;
+    private List<Long> newMovies;
+    private List<Long> popularMovies;
+    private List<Long> trendingMovies;
+    private Map<Long, MovieCardDTO> movies;
+    private List<CategoryDTO> categories;
+}
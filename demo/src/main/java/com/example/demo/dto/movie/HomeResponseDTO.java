@@ -16,10 +16,10 @@ public class HomeResponseDTO implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    private List<MovieDTO> banners;          // Phim nổi bật cho banner/slider
-    private List<MovieDTO> newMovies;
-    private List<MovieDTO> popularMovies;    // Phim phổ biến (theo view count)
-    private List<MovieDTO> trendingMovies;   // Phim đang hot (theo rating)
+    private List<MovieCardDTO> banners;          // Phim nổi bật cho banner/slider
+    private List<MovieCardDTO> newMovies;
+    private List<MovieCardDTO> popularMovies;    // Phim phổ biến (theo view count)
+    private List<MovieCardDTO> trendingMovies;   // Phim đang hot (theo rating)
     private List<CategoryDTO> categories;
 }
 
@@ -0,0 +1,6 @@
+package com.example.demo.dto.movie;
+
+import java.util.List;
+
+public record MovieBatchRequest(List<Long> movieIds) {
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto.movie;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Thẻ phim dùng cho các danh sách (rail trang chủ, duyệt thể loại, tìm kiếm).
+ * Được tạo trực tiếp từ JPQL (constructor expression), không load description và entity Category.
+ * Thông tin đầy đủ lấy qua endpoint chi tiết phim (MovieDTO).
+ */
+public record MovieCardDTO(Long movieId, String title, String thumbnailUrl, String posterUrl, Double rating,
+                           Long viewCount, Long categoryId, String categoryName,
+                           Instant createdDate) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
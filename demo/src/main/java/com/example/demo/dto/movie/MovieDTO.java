@@ -27,6 +27,7 @@ public class MovieDTO implements Serializable {
     private Integer duration;
     private LocalDate releaseDate;
     private Double rating;
+    private Long ratingCount;
     private Long viewCount;
     private String status;
     private CategoryDTO category;
@@ -46,6 +47,7 @@ public class MovieDTO implements Serializable {
                 .duration(movie.getDuration())
                 .releaseDate(movie.getReleaseDate())
                 .rating(movie.getRating())
+                .ratingCount(movie.getRatingCount())
                 .viewCount(movie.getViewCount())
                 .status(movie.getStatus())
                 .category(movie.getCategory() != null ? CategoryDTO.fromEntity(movie.getCategory()) : null)
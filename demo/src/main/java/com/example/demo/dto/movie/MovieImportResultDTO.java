@@ -0,0 +1,9 @@
+package com.example.demo.dto.movie;
+
+import java.util.List;
+
+/**
+ * Kết quả import phim: số dòng đọc được, số dòng đã ghi, số dòng lỗi và chi tiết lỗi (giới hạn số lượng).
+ */
+public record MovieImportResultDTO(int totalRows, int importedRows, int failedRows, List<String> errors) {
+}
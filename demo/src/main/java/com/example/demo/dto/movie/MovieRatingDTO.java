@@ -0,0 +1,16 @@
+package com.example.demo.dto.movie;
+
+/**
+ * Kết quả đánh giá: điểm của người dùng và điểm trung bình / số lượt đánh giá hiện tại của phim.
+ */
+public record MovieRatingDTO(Long movieId, Integer score, Double rating, Long ratingCount) {
+
+    // Dùng cho JPQL constructor expression (chỉ đọc aggregate của phim)
+    public MovieRatingDTO(Long movieId, Double rating, Long ratingCount) {
+        this(movieId, null, rating, ratingCount);
+    }
+
+    public MovieRatingDTO withScore(Integer score) {
+        return new MovieRatingDTO(movieId, score, rating, ratingCount);
+    }
+}
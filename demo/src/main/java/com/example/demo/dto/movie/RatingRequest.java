@@ -0,0 +1,4 @@
+package com.example.demo.dto.movie;
+
+public record RatingRequest(Integer score) {
+}
@@ -0,0 +1,4 @@
+package com.example.demo.dto.movie;
+
+public record WatchProgressRequest(Integer positionSeconds, Integer durationSeconds) {
+}
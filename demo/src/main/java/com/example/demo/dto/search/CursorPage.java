@@ -0,0 +1,9 @@
+package com.example.demo.dto.search;
+
+import java.util.List;
+
+/**
+ * Một trang kết quả phân trang keyset. nextCursor null nghĩa là đã hết dữ liệu.
+ */
+public record CursorPage<T>(List<T> data, String nextCursor) {
+}
@@ -0,0 +1,8 @@
+package com.example.demo.enums;
+
+public enum CatalogChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ;
+}
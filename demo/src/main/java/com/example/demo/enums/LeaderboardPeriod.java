@@ -0,0 +1,21 @@
+package com.example.demo.enums;
+
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+
+import java.util.Locale;
+
+public enum LeaderboardPeriod {
+    DAY,
+    WEEK,
+    ALL,
+    ;
+
+    public static LeaderboardPeriod from(String value) {
+        try {
+            return LeaderboardPeriod.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ApiInternalException(ErrorMessage.VALIDATION_ERROR, "Invalid period: " + value);
+        }
+    }
+}
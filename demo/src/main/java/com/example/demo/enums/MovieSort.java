@@ -0,0 +1,29 @@
+package com.example.demo.enums;
+
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+import lombok.Getter;
+
+import java.util.Locale;
+
+@Getter
+public enum MovieSort {
+    NEWEST("createdDate"),
+    POPULAR("viewCount"),
+    RATING("rating"),
+    ;
+
+    private final String field;
+
+    MovieSort(String field) {
+        this.field = field;
+    }
+
+    public static MovieSort from(String value) {
+        try {
+            return MovieSort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ApiInternalException(ErrorMessage.VALIDATION_ERROR, "Invalid sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.enums;
+
+public enum PopularRanking {
+    VIEW_COUNT,      // tổng lượt xem (Movie.viewCount)
+    UNIQUE_VIEWERS,  // số người xem duy nhất (Redis HyperLogLog)
+    DAILY_VIEWS,     // lượt xem hôm nay (Redis ZSET leaderboard)
+    WEEKLY_VIEWS,    // lượt xem tuần này (Redis ZSET leaderboard)
+    ALL_TIME_VIEWS,  // lượt xem từ trước tới nay (Redis ZSET leaderboard)
+    ;
+}
@@ -0,0 +1,7 @@
+package com.example.demo.enums;
+
+public enum TokenValidationMode {
+    REDIS,  // mỗi request (cache miss) kiểm tra token hiện hành trên Redis
+    LOCAL,  // tin chữ ký + hạn, chỉ đối chiếu danh sách jti bị thu hồi trong bộ nhớ
+    ;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.event;
+
+import com.example.demo.enums.CatalogChangeType;
+
+/**
+ * Phát ra khi một entity thuộc catalog (Movie, Category) được thêm / sửa / xóa.
+ *
+ * @param entityType Class của entity thay đổi
+ * @param entityId   Id của entity
+ * @param changeType Loại thay đổi
+ */
+public record CatalogChangedEvent(Class<?> entityType, Object entityId, CatalogChangeType changeType) {
+}
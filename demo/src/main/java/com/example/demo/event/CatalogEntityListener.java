@@ -0,0 +1,45 @@
+package com.example.demo.event;
+
+import com.example.demo.domain.Category;
+import com.example.demo.domain.Movie;
+import com.example.demo.enums.CatalogChangeType;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener chuyển các thay đổi của Movie / Category thành {@link CatalogChangedEvent}.
+ * Được Hibernate lấy từ Spring context (SpringBeanContainer) nên có thể inject bean.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        publish(entity, CatalogChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        publish(entity, CatalogChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, CatalogChangeType.DELETED);
+    }
+
+    private void publish(Object entity, CatalogChangeType changeType) {
+        if (entity instanceof Movie movie) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(Movie.class, movie.getMovieId(), changeType));
+        } else if (entity instanceof Category category) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(Category.class, category.getCategoryId(), changeType));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.event;
+
+/**
+ * Phát ra khi người dùng đánh giá / đổi điểm một phim, được xử lý sau khi transaction commit.
+ * Nhẹ hơn CatalogChangedEvent: không ghi nhật ký thay đổi, không rebuild trang chủ
+ * (snapshot định kỳ tự lấy điểm mới) mà chỉ cập nhật dữ liệu của riêng phim.
+ *
+ * @param movieId Id phim
+ * @param score   Điểm đánh giá mới của người dùng
+ * @param rating  Điểm trung bình mới của phim
+ */
+public record MovieRatedEvent(Long movieId, int score, Double rating) {
+}
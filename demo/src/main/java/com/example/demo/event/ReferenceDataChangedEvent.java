@@ -0,0 +1,9 @@
+package com.example.demo.event;
+
+/**
+ * Phát ra khi dữ liệu tham chiếu nằm trong Hibernate second-level cache (Category, Role, Permission) thay đổi.
+ *
+ * @param entityType Class của entity thay đổi
+ */
+public record ReferenceDataChangedEvent(Class<?> entityType) {
+}
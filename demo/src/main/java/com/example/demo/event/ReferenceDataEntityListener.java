@@ -0,0 +1,27 @@
+package com.example.demo.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener chuyển thay đổi của các entity được cache (Category, Role, Permission)
+ * thành {@link ReferenceDataChangedEvent} để các node khác xóa second-level cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(Hibernate.getClass(entity)));
+    }
+}
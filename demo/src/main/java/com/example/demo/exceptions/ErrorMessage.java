@@ -6,6 +6,7 @@ import lombok.Getter;
 public enum ErrorMessage {
     SUCCESS("00", "Success"),
     USER_NOT_FOUND("USER_NOT_FOUND", "User not found"),
+    MOVIE_NOT_FOUND("MOVIE_NOT_FOUND", "Movie not found"),
     VALIDATION_ERROR("400", "Validation error"),
     CURRENT_PASSWORD_INVALID("CURRENT_PASSWORD_INVALID", "Current password invalid"),
     ACCESS_DENIED("403", "Access denied"),
@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.MovieRating;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MovieRatingRepository extends JpaRepository<MovieRating, Long> {
+
+    // Đọc không khóa: SELECT ... FOR UPDATE trên dòng chưa tồn tại giữ gap lock, hai insert đồng thời sẽ deadlock
+    boolean existsByUserIdAndMovieId(Long userId, Long movieId);
+
+    // Khóa dòng đánh giá cũ để hai request đổi điểm cùng lúc không tính delta hai lần
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<MovieRating> findByUserIdAndMovieId(Long userId, Long movieId);
+}
@@ -1,10 +1,68 @@
 package com.example.demo.repository;
 
 import com.example.demo.domain.Movie;
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.dto.movie.MovieRatingDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Long> {
-}
+public interface MovieRepository extends JpaRepository<Movie, Long>, MovieRepositoryCustom {
+
+    String CARD_SELECT = "SELECT new com.example.demo.dto.movie.MovieCardDTO(m.movieId, m.title, m.thumbnailUrl, " +
+            "m.posterUrl, m.rating, m.viewCount, c.categoryId, c.categoryName, m.createdDate) " +
+            "FROM Movie m LEFT JOIN m.category c ";
+
+    // Banner: có poster, rating DESC, viewCount DESC (index idx_movies_status_rating_view)
+    @Query(CARD_SELECT + "WHERE m.status = :status AND m.posterUrl IS NOT NULL AND m.posterUrl <> '' " +
+            "ORDER BY m.rating DESC, m.viewCount DESC")
+    List<MovieCardDTO> findBannerCards(@Param("status") String status, Limit limit);
+
+    // Phim mới nhất (index idx_movies_status_created)
+    @Query(CARD_SELECT + "WHERE m.status = :status ORDER BY m.createdDate DESC")
+    List<MovieCardDTO> findNewCards(@Param("status") String status, Limit limit);
+
+    // Phim phổ biến (index idx_movies_status_view)
+    @Query(CARD_SELECT + "WHERE m.status = :status ORDER BY m.viewCount DESC")
+    List<MovieCardDTO> findPopularCards(@Param("status") String status, Limit limit);
+
+    // Phim trending (index idx_movies_status_rating_view)
+    @Query(CARD_SELECT + "WHERE m.status = :status AND m.rating >= :minRating ORDER BY m.rating DESC, m.viewCount DESC")
+    List<MovieCardDTO> findTrendingCards(@Param("status") String status, @Param("minRating") Double minRating, Limit limit);
 
+    @Query(CARD_SELECT + "WHERE m.movieId IN :movieIds AND m.status = :status")
+    List<MovieCardDTO> findCardsByMovieIdIn(@Param("movieIds") Collection<Long> movieIds, @Param("status") String status);
+
+    /**
+     * Cộng dồn điểm đánh giá trong một câu UPDATE (khóa dòng phim trong lúc cập nhật).
+     * rating được gán trước và tính từ giá trị cũ + delta: MySQL đánh giá SET từ trái sang phải.
+     */
+    @Modifying
+    @Query("UPDATE Movie m SET m.rating = (m.ratingSum + :sumDelta) * 1.0 / (m.ratingCount + :countDelta), " +
+            "m.ratingSum = m.ratingSum + :sumDelta, m.ratingCount = m.ratingCount + :countDelta " +
+            "WHERE m.movieId = :movieId AND m.status = :status")
+    int applyRating(@Param("movieId") Long movieId, @Param("status") String status,
+                    @Param("sumDelta") long sumDelta, @Param("countDelta") long countDelta);
+
+    @Query("SELECT new com.example.demo.dto.movie.MovieRatingDTO(m.movieId, m.rating, m.ratingCount) " +
+            "FROM Movie m WHERE m.movieId = :movieId")
+    MovieRatingDTO findRatingSummary(@Param("movieId") Long movieId);
+
+    boolean existsByMovieIdAndStatus(Long movieId, String status);
+
+    @EntityGraph(attributePaths = {"category"})
+    List<Movie> findByMovieIdInAndStatus(Collection<Long> movieIds, String status);
+
+    @EntityGraph(attributePaths = {"category"})
+    Slice<Movie> findByStatus(String status, Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.enums.MovieSort;
+
+import java.util.List;
+
+public interface MovieRepositoryCustom {
+
+    /**
+     * Lấy thẻ phim của một thể loại theo keyset: sắp xếp (sort key DESC, movieId DESC), NULL xếp cuối.
+     *
+     * @param categoryId   Id thể loại
+     * @param status       Trạng thái phim
+     * @param sort         Kiểu sắp xếp
+     * @param afterKey     Sort key của phần tử cuối trang trước (null nếu phần tử đó không có giá trị)
+     * @param afterMovieId movieId của phần tử cuối trang trước (null cho trang đầu)
+     * @param limit        Số dòng tối đa
+     * @return List MovieCardDTO
+     */
+    List<MovieCardDTO> findCardsByCategory(Long categoryId, String status, MovieSort sort,
+                                           Comparable<?> afterKey, Long afterMovieId, int limit);
+}
@@ -0,0 +1,58 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.Category;
+import com.example.demo.domain.Movie;
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.enums.MovieSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MovieRepositoryCustomImpl implements MovieRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<MovieCardDTO> findCardsByCategory(Long categoryId, String status, MovieSort sort,
+                                                  Comparable<?> afterKey, Long afterMovieId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MovieCardDTO> query = cb.createQuery(MovieCardDTO.class);
+        Root<Movie> root = query.from(Movie.class);
+        Join<Movie, Category> category = root.join("category", JoinType.LEFT);
+
+        query.select(cb.construct(MovieCardDTO.class,
+                root.get("movieId"), root.get("title"), root.get("thumbnailUrl"), root.get("posterUrl"),
+                root.get("rating"), root.get("viewCount"), category.get("categoryId"), category.get("categoryName"),
+                root.get("createdDate")));
+
+        Expression key = root.get(sort.getField());
+        Expression<Long> movieId = root.get("movieId");
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("category").get("categoryId"), categoryId));
+        predicates.add(cb.equal(root.get("status"), status));
+        if (afterMovieId != null) {
+            if (afterKey == null) {
+                predicates.add(cb.and(cb.isNull(key), cb.lessThan(movieId, afterMovieId)));
+            } else {
+                Comparable value = afterKey;
+                predicates.add(cb.or(
+                        cb.lessThan(key, value),
+                        cb.and(cb.equal(key, value), cb.lessThan(movieId, afterMovieId)),
+                        cb.isNull(key)
+                ));
+            }
+        }
+        // key DESC (MySQL xếp NULL cuối), movieId DESC
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(key), cb.desc(movieId));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
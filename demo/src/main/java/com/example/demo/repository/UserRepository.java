@@ -1,7 +1,6 @@
 package com.example.demo.repository;
 
 import com.example.demo.domain.User;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
@@ -12,7 +11,7 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByUsername(String username);
 
-    @EntityGraph(attributePaths = {"role", "role.permissions"})
+    // Role (EAGER) và role.permissions được load từ second-level cache thay vì join mỗi lần
     Optional<User> findOneWithAuthoritiesByUsername(String username);
 
     Boolean existsByUsername(String username);
@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.WatchProgress;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WatchProgressRepository extends JpaRepository<WatchProgress, Long> {
+
+    // Dùng khi Redis không có dữ liệu (index idx_watch_progress_user_updated)
+    List<WatchProgress> findByUsernameOrderByUpdatedAtDesc(String username, Limit limit);
+}
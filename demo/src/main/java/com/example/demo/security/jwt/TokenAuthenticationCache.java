@@ -0,0 +1,164 @@
+package com.example.demo.security.jwt;
+
+import com.example.demo.config.ApplicationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache local (Caffeine) các token đã xác thực: fingerprint SHA-256 của JWT -> Authentication.
+ * Entry hết hạn theo token-cache-ttl-seconds nhưng không bao giờ sống quá thời điểm hết hạn của chính token.
+ * Khi token của một user bị thu hồi (logout / đăng nhập nơi khác), node thu hồi xóa entry local
+ * và gửi username lên Redis pub/sub để các node còn lại cùng xóa.
+ * Fingerprint được đánh index theo username nên thu hồi chỉ xóa đúng các entry của user, không quét cả cache.
+ */
+@Component
+@Slf4j
+public class TokenAuthenticationCache implements MessageListener {
+
+    public static final String EVICT_CHANNEL = "TOKEN_CACHE:evict";
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, CachedAuthentication> cache;
+    // username -> fingerprint các token đang cache của user
+    private final Map<String, Set<String>> fingerprintsByUser = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    // Tăng mỗi lần thu hồi: entry được đưa vào cache trong lúc đang thu hồi sẽ bị bỏ
+    private final AtomicLong revocations = new AtomicLong();
+
+    public TokenAuthenticationCache(ApplicationProperties properties, StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        long ttlNanos = TimeUnit.SECONDS.toNanos(properties.getSecurity().getTokenCacheTtlSeconds());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getSecurity().getTokenCacheMaxSize())
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(@NonNull String key, @NonNull CachedAuthentication value, long currentTime) {
+                        long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(@NonNull String key, @NonNull CachedAuthentication value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(@NonNull String key, @NonNull CachedAuthentication value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .removalListener((String fingerprint, CachedAuthentication value, RemovalCause cause) -> {
+                    if (value != null && cause != RemovalCause.REPLACED) {
+                        unindex(value.username(), fingerprint);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Lấy Authentication của token từ cache; nếu chưa có thì gọi loader (verify chữ ký + kiểm tra Redis)
+     * và lưu lại kết quả hợp lệ.
+     *
+     * @param token  JWT
+     * @param loader Trả về CachedAuthentication hoặc null nếu token không hợp lệ
+     * @return Authentication hoặc null
+     */
+    public Authentication get(String token, Function<String, CachedAuthentication> loader) {
+        String fingerprint = fingerprint(token);
+        CachedAuthentication cached = cache.getIfPresent(fingerprint);
+        if (cached != null) {
+            return cached.authentication();
+        }
+        long revocationsBefore = revocations.get();
+        CachedAuthentication loaded = loader.apply(token);
+        if (loaded == null) {
+            return null;
+        }
+        cache.put(fingerprint, loaded);
+        fingerprintsByUser.computeIfAbsent(loaded.username(), username -> ConcurrentHashMap.newKeySet()).add(fingerprint);
+        // Có thu hồi xen giữa lúc kiểm tra Redis và lúc put / index: không giữ entry có thể đã cũ
+        if (revocations.get() != revocationsBefore) {
+            cache.invalidate(fingerprint);
+        }
+        return loaded.authentication();
+    }
+
+    /**
+     * Xóa mọi token đã cache của user trên node này và thông báo cho các node khác.
+     * Gọi sau khi Redis đã được cập nhật.
+     *
+     * @param username Username
+     */
+    public void evictUser(String username) {
+        evictLocal(username);
+        try {
+            stringRedisTemplate.convertAndSend(EVICT_CHANNEL, nodeId + MESSAGE_SEPARATOR + username);
+        } catch (Exception e) {
+            log.error("Error publishing token cache eviction for {}", username, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        evictLocal(body.substring(separator + 1));
+    }
+
+    private void evictLocal(String username) {
+        revocations.incrementAndGet();
+        Set<String> fingerprints = fingerprintsByUser.remove(username);
+        if (fingerprints != null) {
+            cache.invalidateAll(fingerprints);
+        }
+    }
+
+    // Gỡ index khi entry hết hạn / bị đẩy ra; bỏ qua nếu key vừa được put lại cho token đó
+    private void unindex(String username, String fingerprint) {
+        fingerprintsByUser.computeIfPresent(username, (user, fingerprints) -> {
+            if (!cache.asMap().containsKey(fingerprint)) {
+                fingerprints.remove(fingerprint);
+            }
+            return fingerprints.isEmpty() ? null : fingerprints;
+        });
+    }
+
+    private static String fingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record CachedAuthentication(String username, Authentication authentication, long expiresAtMillis) {
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.security.jwt;
 import com.example.demo.config.ApplicationProperties;
 import com.example.demo.dto.NotificationPayload;
 import com.example.demo.enums.NotificationEnum;
+import com.example.demo.enums.TokenValidationMode;
 import com.example.demo.security.CustomUserDetails;
 import com.example.demo.service.RedisTokenService;
 import io.jsonwebtoken.*;
@@ -23,7 +24,6 @@ import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Component
 @Slf4j
@@ -31,6 +31,8 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
     private static final String ROLES_KEY = "role";
+    private static final String SESSION_KEY = "sid";
+    private static final String TYPE_KEY = "type";
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
     private final Key key;
     private final JwtParser jwtParser;
@@ -40,11 +42,18 @@ public class TokenProvider {
     private final SimpMessagingTemplate messagingTemplate;
     @Getter
     private final RedisTokenService redisTokenService;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final boolean localValidation;
 
     public TokenProvider(ApplicationProperties properties, SimpMessagingTemplate messagingTemplate,
-                         RedisTokenService redisTokenService) {
+                         RedisTokenService redisTokenService, TokenAuthenticationCache tokenAuthenticationCache,
+                         TokenRevocationRegistry tokenRevocationRegistry) {
         this.messagingTemplate = messagingTemplate;
         this.redisTokenService = redisTokenService;
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.localValidation = properties.getSecurity().getValidationMode() == TokenValidationMode.LOCAL;
         String secret = properties.getSecurity().getBase64Secret();
         byte[] keyBytes = Decoders.BASE64.decode(secret);
         key = Keys.hmacShaKeyFor(keyBytes);
@@ -56,8 +65,9 @@ public class TokenProvider {
     }
 
     public String createToken(Authentication authentication, boolean rememberMe, HttpServletRequest request) {
-        String authorities =
-                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
+        // Lưu authorities dạng list để khi verify không phải split chuỗi
+        List<String> authorities =
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
         long now = (new Date()).getTime();
         Date validity;
@@ -68,11 +78,29 @@ public class TokenProvider {
         }
 
         String jwtName = authentication.getName();
-        String tokenExisting = redisTokenService.getToken(jwtName);
         HttpSession session = request.getSession(true);
         String sessionId = session.getId();
 
+        // Ký token trước, sau đó thay token hiện hành trên Redis bằng một script nguyên tử.
+        // jti là UUID ngẫu nhiên (Redis chỉ lưu 16 byte của jti), session id chuyển sang claim "sid"
+        String jti = UUID.randomUUID().toString();
+        String token = Jwts.builder()
+                .setId(jti)
+                .claim(SESSION_KEY, sessionId)
+                .setSubject(authentication.getName())
+                .claim(AUTHORITIES_KEY, authorities)
+                .claim(ROLES_KEY, userDetails.getRoleCode())
+                .signWith(key, SignatureAlgorithm.HS512)
+                .setExpiration(validity)
+                .compact();
+
+        String tokenExisting = redisTokenService.swapToken(jwtName, jti, tokenValidityInMilliseconds / (1000 * 60));
+
         if (tokenExisting != null) {
+            // Token cũ hết hạn muộn nhất sau một chu kỳ hiệu lực tính từ bây giờ
+            tokenRevocationRegistry.revoke(tokenExisting, now + Math.max(tokenValidityInMilliseconds,
+                    tokenValidityInMillisecondsForRememberMe));
+            tokenAuthenticationCache.evictUser(jwtName);
             NotificationPayload<?> payload = NotificationPayload.builder()
                     .type(NotificationEnum.FORCE_LOGOUT)
                     .message("Tài khoản của bạn vừa đăng nhập ở nơi khác")
@@ -82,19 +110,7 @@ public class TokenProvider {
                     .username(userDetails.getUsername())
                     .build();
             messagingTemplate.convertAndSendToUser(userDetails.getUsername(), "/queue/force-logout", payload);
-            this.revokeToken(tokenExisting);
         }
-
-        String token = Jwts.builder()
-                .setId(sessionId)
-                .setSubject(authentication.getName())
-                .claim(AUTHORITIES_KEY, authorities)
-                .claim(ROLES_KEY, userDetails.getRoleCode())
-                .signWith(key, SignatureAlgorithm.HS512)
-                .setExpiration(validity)
-                .compact();
-
-        redisTokenService.saveToken(jwtName, token, tokenValidityInMilliseconds / (1000 * 60));
         return token;
     }
 
@@ -104,85 +120,187 @@ public class TokenProvider {
         long now = (new Date()).getTime();
         Date validity = new Date(now + this.refreshTokenValidityInMilliseconds);
 
+        String jti = UUID.randomUUID().toString();
         String refreshToken = Jwts.builder()
-                .setId(sessionId + "_refresh")
+                .setId(jti)
+                .claim(SESSION_KEY, sessionId)
                 .setSubject(username)
-                .claim("type", "refresh")
+                .claim(TYPE_KEY, VerifiedToken.REFRESH_TYPE)
                 .signWith(key, SignatureAlgorithm.HS512)
                 .setExpiration(validity)
                 .compact();
 
         // Lưu refresh token vào Redis với thời gian hết hạn dài hơn
-        redisTokenService.saveRefreshToken(username, refreshToken, refreshTokenValidityInMilliseconds / (1000 * 60));
+        redisTokenService.saveRefreshToken(username, jti, refreshTokenValidityInMilliseconds / (1000 * 60));
         return refreshToken;
     }
 
-    public Claims validateRefreshToken(String refreshToken) {
-        try {
-            Claims claims = jwtParser.parseClaimsJws(refreshToken).getBody();
-            String tokenType = claims.get("type", String.class);
+    /**
+     * Kiểm tra refresh token: chữ ký, loại token và refresh token hiện hành trên Redis.
+     *
+     * @param refreshToken Refresh token
+     * @return VerifiedToken hoặc null nếu không hợp lệ
+     */
+    public VerifiedToken validateRefreshToken(String refreshToken) {
+        VerifiedToken verifiedToken = parse(refreshToken);
+        if (verifiedToken == null) {
+            return null;
+        }
+        if (!verifiedToken.isRefreshToken()) {
+            log.error("Invalid refresh token type");
+            return null;
+        }
+        // Kiểm tra refresh token có hợp lệ trong Redis không
+        if (!isCurrent(verifiedToken)) {
+            log.error("Refresh token not found in Redis or expired");
+            return null;
+        }
+        return verifiedToken;
+    }
 
-            if (!"refresh".equals(tokenType)) {
-                log.error("Invalid refresh token type");
-                return null;
-            }
+    public String createAccessTokenFromAuthentication(Authentication authentication, HttpServletRequest request) {
+        return createToken(authentication, false, request);
+    }
 
-            String username = claims.getSubject();
+    /**
+     * Xác thực access token và trả về Authentication, dùng cache local theo fingerprint của token.
+     * Cache miss: verify chữ ký một lần, kiểm tra token hiện hành trên Redis (hoặc danh sách thu hồi local
+     * khi validation-mode=LOCAL) rồi dựng Authentication. VerifiedToken được gắn vào details của Authentication.
+     *
+     * @param token JWT
+     * @return Authentication hoặc null nếu token không hợp lệ / đã bị thu hồi
+     */
+    public Authentication getVerifiedAuthentication(String token) {
+        Authentication authentication = tokenAuthenticationCache.get(token, this::verify);
+        // Thông báo thu hồi và thông báo xóa cache đi trên hai channel khác nhau: kiểm tra lại cả khi cache hit
+        if (authentication != null && localValidation && tokenRevocationRegistry.isLoaded()
+                && authentication.getDetails() instanceof VerifiedToken verifiedToken
+                && tokenRevocationRegistry.isRevoked(verifiedToken.jti())) {
+            return null;
+        }
+        return authentication;
+    }
 
-            // Kiểm tra refresh token có hợp lệ trong Redis không
-            if (!redisTokenService.isRefreshTokenValid(username, refreshToken)) {
-                log.error("Refresh token not found in Redis or expired");
-                return null;
-            }
+    private TokenAuthenticationCache.CachedAuthentication verify(String token) {
+        VerifiedToken verifiedToken = parse(token);
+        if (verifiedToken == null || verifiedToken.isRefreshToken() || !isTrusted(verifiedToken)) {
+            return null;
+        }
+        return new TokenAuthenticationCache.CachedAuthentication(verifiedToken.username(),
+                toAuthentication(verifiedToken), verifiedToken.expiresAtMillis());
+    }
 
-            return claims;
+    /**
+     * Verify chữ ký và hạn của JWT (một lần duy nhất), không kiểm tra Redis.
+     *
+     * @param token JWT
+     * @return VerifiedToken hoặc null nếu token không hợp lệ
+     */
+    public VerifiedToken parse(String token) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(
+                    token,
+                    claims.getId(),
+                    claims.getSubject(),
+                    claims.get(SESSION_KEY, String.class),
+                    claims.get(TYPE_KEY, String.class),
+                    claims.get(ROLES_KEY, String.class),
+                    readAuthorities(claims.get(AUTHORITIES_KEY)),
+                    expiration != null ? expiration.getTime() : Long.MAX_VALUE
+            );
         } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException | SignatureException e) {
-            log.trace("Invalid refresh token", e);
-            return null;
+            log.trace(INVALID_JWT_TOKEN, e);
         } catch (IllegalArgumentException e) {
-            log.error("Refresh token validation error {}", e.getMessage());
-            return null;
+            log.error("Token validation error {}", e.getMessage());
         }
+        return null;
     }
 
-    public String createAccessTokenFromAuthentication(Authentication authentication, HttpServletRequest request) {
-        return createToken(authentication, false, request);
+    // Token mới lưu authorities dạng list; token cũ dạng chuỗi phân tách bằng dấu phẩy
+    private static List<String> readAuthorities(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.stream().map(String::valueOf).toList();
+        }
+        if (value instanceof String joined) {
+            return Arrays.stream(joined.split(","))
+                    .filter(auth -> !auth.trim().isEmpty())
+                    .toList();
+        }
+        return List.of();
     }
 
-    public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-        Collection<? extends GrantedAuthority> authorities = Arrays
-                .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .filter(auth -> !auth.trim().isEmpty())
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+    // LOCAL: chỉ đối chiếu danh sách thu hồi, không gọi Redis; dùng Redis khi danh sách chưa load xong
+    private boolean isTrusted(VerifiedToken verifiedToken) {
+        if (localValidation && tokenRevocationRegistry.isLoaded()) {
+            return !tokenRevocationRegistry.isRevoked(verifiedToken.jti());
+        }
+        return isCurrent(verifiedToken);
+    }
+
+    /**
+     * Token có còn là token hiện hành của user trên Redis không.
+     */
+    public boolean isCurrent(VerifiedToken verifiedToken) {
+        try {
+            return verifiedToken.isRefreshToken()
+                    ? redisTokenService.isRefreshTokenValid(verifiedToken.username(), verifiedToken.jti())
+                    : redisTokenService.isTokenValid(verifiedToken.username(), verifiedToken.jti());
+        } catch (IllegalArgumentException e) {
+            log.trace("Token without UUID jti", e);
+            return false;
+        }
+    }
+
+    public Authentication toAuthentication(VerifiedToken verifiedToken) {
+        List<GrantedAuthority> authorities = verifiedToken.authorities().stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
         CustomUserDetails principal = new CustomUserDetails(
-                claims.getSubject(),
+                verifiedToken.username(),
                 "",
                 authorities,
-                claims.get(ROLES_KEY, String.class)
+                verifiedToken.roleCode()
         );
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, verifiedToken.token(), authorities);
+        authentication.setDetails(verifiedToken);
+        return authentication;
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Thu hồi access token đã verify (logout): chỉ xóa khi token vẫn là token hiện hành,
+     * tránh xóa phiên mới hơn của user.
+     *
+     * @param verifiedToken Token lấy từ Authentication của request
+     */
+    public void revokeToken(VerifiedToken verifiedToken) {
+        tokenRevocationRegistry.revoke(verifiedToken.jti(), verifiedToken.expiresAtMillis());
         try {
-            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
-            String username = claims.getSubject(); // lấy JWT ID
-
-            //kiểm tra token có hợp lệ không
-            return redisTokenService.isTokenValid(username, authToken);
-        } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException | SignatureException e) {
-            log.trace(INVALID_JWT_TOKEN, e);
+            if (redisTokenService.deleteTokenIfMatches(verifiedToken.username(), verifiedToken.jti())) {
+                tokenAuthenticationCache.evictUser(verifiedToken.username());
+            }
         } catch (IllegalArgumentException e) {
-            log.error("Token validation error {}", e.getMessage());
+            log.trace("Token without UUID jti, nothing to revoke", e);
         }
-        return false;
     }
 
-    public void revokeToken(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-        redisTokenService.deleteToken(claims.getId());
+    /**
+     * Thu hồi refresh token nếu chữ ký hợp lệ và token vẫn là refresh token hiện hành của user.
+     *
+     * @param refreshToken Refresh token
+     */
+    public void revokeRefreshToken(String refreshToken) {
+        VerifiedToken verifiedToken = parse(refreshToken);
+        if (verifiedToken == null || !verifiedToken.isRefreshToken()) {
+            return;
+        }
+        try {
+            redisTokenService.deleteRefreshTokenIfMatches(verifiedToken.username(), verifiedToken.jti());
+        } catch (IllegalArgumentException e) {
+            log.trace("Refresh token without UUID jti, nothing to revoke", e);
+        }
     }
 
 }
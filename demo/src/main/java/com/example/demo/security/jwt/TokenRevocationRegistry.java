@@ -0,0 +1,244 @@
+package com.example.demo.security.jwt;
+
+import com.example.demo.config.ApplicationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Danh sách jti đã bị thu hồi (logout / đăng nhập nơi khác) cho chế độ validation-mode=LOCAL.
+ * Nguồn chính là stream REVOKED_JTI:log trên Redis (mỗi entry: jti + thời điểm token hết hạn), tự cắt entry
+ * cũ hơn một chu kỳ hiệu lực token. Mỗi node giữ bản sao trong bộ nhớ (UUID -> hạn), nhận thu hồi mới qua pub/sub
+ * và định kỳ chỉ đọc phần stream sau con trỏ đã đọc (bù message pub/sub bị mất). Toàn bộ stream chỉ được đọc lại
+ * khi khởi động và khi subscribe lại sau mất kết nối. Thu hồi ghi Redis lỗi được ghi lại ở lần đồng bộ sau.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry implements MessageListener, SubscriptionListener {
+
+    public static final String REVOKED_CHANNEL = "TOKEN:revoked";
+    private static final String REVOKED_STREAM = "REVOKED_JTI:log";
+    private static final String FIELD_JTI = "jti";
+    private static final String FIELD_EXPIRES_AT = "exp";
+    private static final String MESSAGE_SEPARATOR = "|";
+    private static final String STREAM_START = "0-0";
+    private static final int READ_BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    // Entry thêm vào trước (now - retention) thuộc token đã hết hạn nên được cắt khỏi stream
+    private final long retentionMillis;
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+    // Thu hồi chưa ghi được lên Redis (node khác chưa biết), ghi lại ở lần đồng bộ sau
+    private final Map<UUID, Long> pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    // Id entry cuối cùng đã đọc từ stream
+    private RecordId cursor = RecordId.of(STREAM_START);
+    // Chưa load xong (hoặc lần đồng bộ gần nhất lỗi) thì chưa thể tin danh sách local
+    private volatile boolean loaded;
+
+    public TokenRevocationRegistry(StringRedisTemplate stringRedisTemplate, ApplicationProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.retentionMillis = 1000 * properties.getSecurity().getTokenValidityInSeconds();
+    }
+
+    /**
+     * Ghi jti bị thu hồi lên Redis (stream + pub/sub) và vào danh sách local.
+     * Ghi Redis lỗi thì giữ lại để {@link #resync()} ghi lại.
+     *
+     * @param jti             jti của token bị thu hồi
+     * @param expiresAtMillis Thời điểm token hết hạn, sau đó không cần giữ nữa
+     */
+    public void revoke(String jti, long expiresAtMillis) {
+        UUID id = toUuid(jti);
+        if (id == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(id, expiresAtMillis);
+        try {
+            write(id, expiresAtMillis);
+        } catch (Exception e) {
+            pendingWrites.put(id, expiresAtMillis);
+            log.error("Error publishing token revocation {}, will retry", id, e);
+        }
+    }
+
+    /**
+     * Token có bị thu hồi không. jti không phải UUID được coi là bị thu hồi.
+     */
+    public boolean isRevoked(String jti) {
+        UUID id = toUuid(jti);
+        if (id == null) {
+            return true;
+        }
+        Long expiresAt = revoked.get(id);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Số thu hồi chưa ghi được lên Redis.
+     */
+    public int getPendingWriteCount() {
+        return pendingWrites.size();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+        UUID id = toUuid(body.substring(0, separator));
+        Long expiresAt = toLong(body.substring(separator + 1));
+        if (expiresAt == null) {
+            log.warn("Invalid token revocation message {}", body);
+        } else if (id != null) {
+            revoked.put(id, expiresAt);
+        }
+    }
+
+    /**
+     * Subscribe lại sau khi mất kết nối: message trong lúc mất kết nối không được gửi lại nên load lại toàn bộ.
+     * Lần subscribe đầu tiên đã được bù bởi {@link #load()} lúc khởi động.
+     */
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (REVOKED_CHANNEL.equals(new String(channel, StandardCharsets.UTF_8))
+                && !subscribed.compareAndSet(false, true)) {
+            log.info("Resubscribed to {}, reloading revoked token ids", REVOKED_CHANNEL);
+            load();
+        }
+    }
+
+    /**
+     * Load toàn bộ stream khi khởi động. Channel đã được subscribe trước đó
+     * nên thu hồi xảy ra trong lúc load vẫn được nhận qua pub/sub.
+     * Lỗi khi load đánh dấu danh sách chưa tin được: chế độ LOCAL quay về kiểm tra Redis cho tới lần đồng bộ sau.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        readFrom(RecordId.of(STREAM_START));
+    }
+
+    /**
+     * Ghi lại các thu hồi bị lỗi, đọc phần stream sau con trỏ và dọn jti đã hết hạn.
+     */
+    @Scheduled(fixedDelayString = "${application.security.revocation-sync-interval-ms:5000}")
+    public void resync() {
+        long now = System.currentTimeMillis();
+        pendingWrites.forEach((id, expiresAt) -> {
+            try {
+                if (expiresAt > now) {
+                    write(id, expiresAt);
+                }
+                pendingWrites.remove(id, expiresAt);
+            } catch (Exception e) {
+                log.error("Error retrying token revocation {}", id, e);
+            }
+        });
+        readFrom(null);
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private void write(UUID id, long expiresAtMillis) {
+        String member = id.toString();
+        RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions.none()
+                .minId(RecordId.of(System.currentTimeMillis() - retentionMillis, 0))
+                .approximateTrimming(true);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.xAdd(StreamRecords.string(Map.of(FIELD_JTI, member,
+                    FIELD_EXPIRES_AT, String.valueOf(expiresAtMillis))).withStreamKey(REVOKED_STREAM), options);
+            stringConnection.publish(REVOKED_CHANNEL, member + MESSAGE_SEPARATOR + expiresAtMillis);
+            return null;
+        });
+    }
+
+    // Đọc stream theo từng lô sau id start (null: sau con trỏ hiện tại) tới cuối, rồi tiến con trỏ.
+    // Entry bị cắt khỏi stream chỉ thuộc token đã hết hạn nên con trỏ cũ không làm sót thu hồi còn hiệu lực
+    private synchronized void readFrom(RecordId start) {
+        try {
+            long now = System.currentTimeMillis();
+            RecordId lastRead = start != null ? start : cursor;
+            int read = 0;
+            List<MapRecord<String, Object, Object>> records;
+            do {
+                records = stringRedisTemplate.opsForStream().read(StreamReadOptions.empty().count(READ_BATCH_SIZE),
+                        StreamOffset.create(REVOKED_STREAM, ReadOffset.from(lastRead)));
+                if (records == null || records.isEmpty()) {
+                    break;
+                }
+                for (MapRecord<String, Object, Object> record : records) {
+                    UUID id = toUuid((String) record.getValue().get(FIELD_JTI));
+                    Long expiresAt = toLong((String) record.getValue().get(FIELD_EXPIRES_AT));
+                    if (id != null && expiresAt != null && expiresAt > now) {
+                        revoked.put(id, expiresAt);
+                    }
+                }
+                lastRead = records.get(records.size() - 1).getId();
+                read += records.size();
+            } while (records.size() == READ_BATCH_SIZE);
+            if (isAfter(lastRead, cursor)) {
+                cursor = lastRead;
+            }
+            loaded = true;
+            log.debug("Read {} token revocations, cursor {}", read, cursor);
+        } catch (Exception e) {
+            loaded = false;
+            log.error("Error loading revoked token ids", e);
+        }
+    }
+
+    private static boolean isAfter(RecordId id, RecordId other) {
+        return id.getTimestamp() > other.getTimestamp()
+                || id.getTimestamp().equals(other.getTimestamp()) && id.getSequence() > other.getSequence();
+    }
+
+    private static Long toLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static UUID toUuid(String jti) {
+        if (jti == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(jti);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.security.jwt;
+
+import java.util.List;
+
+/**
+ * Kết quả verify chữ ký + hạn của một JWT, chỉ parse một lần cho mỗi request.
+ * Được gắn vào Authentication (details) để filter, STOMP interceptor và logout dùng lại.
+ *
+ * @param token           Chuỗi JWT gốc
+ * @param jti             jti (UUID)
+ * @param username        subject
+ * @param sessionId       Claim "sid"
+ * @param type            Claim "type" ("refresh" với refresh token, null với access token)
+ * @param roleCode        Claim "role"
+ * @param authorities     Claim "auth"
+ * @param expiresAtMillis Thời điểm hết hạn (epoch millis)
+ */
+public record VerifiedToken(String token, String jti, String username, String sessionId, String type,
+                            String roleCode, List<String> authorities, long expiresAtMillis) {
+
+    public static final String REFRESH_TYPE = "refresh";
+
+    public boolean isRefreshToken() {
+        return REFRESH_TYPE.equals(type);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ApplicationProperties;
+import com.example.demo.domain.Category;
+import com.example.demo.domain.Movie;
+import com.example.demo.dto.movie.CatalogChangesDTO;
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.enums.CatalogChangeType;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Nhật ký thay đổi catalog (bảng catalog_changes) cho client đồng bộ delta thay vì tải lại toàn bộ.
+ * Mỗi thay đổi Movie được ghi một dòng vào catalog_change_pending sau khi transaction commit. Bộ cấp version
+ * định kỳ chuyển các dòng đã commit sang catalog_changes (id auto increment là phiên bản catalog) trong một
+ * transaction giữ khóa catalog_change_sequencer, nên version được cấp theo thứ tự commit: client đã đọc tới
+ * version N không thể bỏ lỡ version nhỏ hơn N commit muộn (kể cả khi INSERT ... SELECT hàng loạt chạy lâu).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogChangeService {
+
+    private static final int PURGE_BATCH_SIZE = 10000;
+    private static final int SEQUENCE_BATCH_SIZE = 1000;
+    private static final int SEQUENCER_ID = 1;
+    private static final String ACTIVE_STATUS = "ACTIVE";
+
+    private static final String INSERT_SQL = "INSERT INTO catalog_change_pending (movie_id, change_type) VALUES (?, ?)";
+    private static final String INSERT_BY_CATEGORY_SQL = "INSERT INTO catalog_change_pending (movie_id, change_type) " +
+            "SELECT movie_id, 'UPDATED' FROM movies WHERE category_id = ? ORDER BY movie_id";
+    private static final String INSERT_MODIFIED_SINCE_SQL = "INSERT INTO catalog_change_pending (movie_id, change_type) " +
+            "SELECT movie_id, 'UPDATED' FROM movies WHERE modified_date >= ? AND modified_by = ? ORDER BY movie_id";
+    private static final String INIT_SEQUENCER_SQL = "INSERT IGNORE INTO catalog_change_sequencer (id) VALUES (?)";
+    private static final String LOCK_SEQUENCER_SQL = "SELECT id FROM catalog_change_sequencer WHERE id = ? FOR UPDATE";
+    // Đọc không khóa: dòng chưa commit không thấy được và sẽ được cấp version ở lần sau
+    private static final String SELECT_PENDING_SQL = "SELECT id, movie_id, change_type FROM catalog_change_pending " +
+            "ORDER BY id LIMIT " + SEQUENCE_BATCH_SIZE;
+    private static final String PUBLISH_SQL = "INSERT INTO catalog_changes (movie_id, change_type) VALUES (?, ?)";
+    private static final String DELETE_PENDING_SQL = "DELETE FROM catalog_change_pending WHERE id = ?";
+    private static final String SELECT_SQL = "SELECT version, movie_id, change_type FROM catalog_changes " +
+            "WHERE version > ? ORDER BY version LIMIT ?";
+    private static final String CURRENT_VERSION_SQL = "SELECT COALESCE(MAX(version), 0) FROM catalog_changes";
+    private static final String MIN_VERSION_SQL = "SELECT MIN(version) FROM catalog_changes";
+    private static final String PURGE_SQL = "DELETE FROM catalog_changes WHERE changed_at < NOW(6) - INTERVAL ? DAY LIMIT "
+            + PURGE_BATCH_SIZE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovieRepository movieRepository;
+    private final ApplicationProperties properties;
+
+    private record ChangeRow(long version, Long movieId, CatalogChangeType changeType) {
+    }
+
+    private record PendingRow(long id, Long movieId, String changeType) {
+    }
+
+    /**
+     * Lấy các thay đổi kể từ phiên bản since. Không truyền since: chỉ trả về phiên bản hiện tại
+     * để client tải toàn bộ một lần rồi đồng bộ delta từ đó.
+     *
+     * @param since Phiên bản client đang giữ
+     * @return CatalogChangesDTO
+     */
+    public CatalogChangesDTO getChanges(Long since) {
+        if (since == null || since < 0) {
+            Long current = jdbcTemplate.queryForObject(CURRENT_VERSION_SQL, Long.class);
+            return new CatalogChangesDTO(current != null ? current : 0L, false, false, List.of());
+        }
+        Long minVersion = jdbcTemplate.queryForObject(MIN_VERSION_SQL, Long.class);
+        if (minVersion != null && since < minVersion - 1) {
+            Long current = jdbcTemplate.queryForObject(CURRENT_VERSION_SQL, Long.class);
+            return new CatalogChangesDTO(current != null ? current : 0L, false, true, List.of());
+        }
+
+        int pageSize = properties.getChanges().getPageSize();
+        List<ChangeRow> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new ChangeRow(
+                rs.getLong("version"), rs.getLong("movie_id"),
+                CatalogChangeType.valueOf(rs.getString("change_type"))), since, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        if (rows.isEmpty()) {
+            return new CatalogChangesDTO(since, false, false, List.of());
+        }
+
+        // Mỗi phim chỉ giữ thay đổi mới nhất, theo thứ tự version
+        Map<Long, ChangeRow> latest = new LinkedHashMap<>();
+        for (ChangeRow row : rows) {
+            latest.remove(row.movieId());
+            latest.put(row.movieId(), row);
+        }
+        Map<Long, MovieCardDTO> movies = movieRepository.findCardsByMovieIdIn(latest.keySet(), ACTIVE_STATUS).stream()
+                .collect(Collectors.toMap(MovieCardDTO::movieId, Function.identity()));
+
+        List<CatalogChangesDTO.Change> changes = new ArrayList<>(latest.size());
+        for (ChangeRow row : latest.values()) {
+            MovieCardDTO movie = movies.get(row.movieId());
+            // Phim không còn active được báo là DELETED để client xóa khỏi bản sao cục bộ
+            CatalogChangeType changeType = movie == null ? CatalogChangeType.DELETED : row.changeType();
+            changes.add(new CatalogChangesDTO.Change(row.version(), row.movieId(), changeType, movie));
+        }
+        return new CatalogChangesDTO(rows.get(rows.size() - 1).version(), hasMore, false, changes);
+    }
+
+    /**
+     * Ghi nhật ký khi Movie / Category thay đổi (sau commit).
+     * Thay đổi hàng loạt (entityId null) do nơi phát event tự ghi qua {@link #recordMoviesModifiedSince}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.entityId() == null) {
+            return;
+        }
+        try {
+            if (Movie.class.equals(event.entityType())) {
+                jdbcTemplate.update(INSERT_SQL, event.entityId(), event.changeType().name());
+            } else if (Category.class.equals(event.entityType())) {
+                // Thẻ phim chứa tên thể loại nên mọi phim của thể loại đều thay đổi
+                jdbcTemplate.update(INSERT_BY_CATEGORY_SQL, event.entityId());
+            }
+        } catch (Exception e) {
+            log.error("Error recording catalog change for {}", event, e);
+        }
+    }
+
+    /**
+     * Tạo dòng khóa của bộ cấp version nếu chưa có (bảng mới).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initSequencer() {
+        try {
+            jdbcTemplate.update(INIT_SEQUENCER_SQL, SEQUENCER_ID);
+        } catch (Exception e) {
+            log.error("Error initializing catalog change sequencer", e);
+        }
+    }
+
+    /**
+     * Cấp version cho các thay đổi đã commit trong catalog_change_pending, chạy theo application.changes.sequence-interval-ms.
+     * Khóa dòng sequencer tới khi commit: node khác chỉ cấp version tiếp theo sau khi các version này đã hiển thị.
+     */
+    @Scheduled(fixedDelayString = "${application.changes.sequence-interval-ms:1000}")
+    @Transactional
+    public void sequenceChanges() {
+        if (jdbcTemplate.queryForList(LOCK_SEQUENCER_SQL, Integer.class, SEQUENCER_ID).isEmpty()) {
+            log.warn("Catalog change sequencer row is missing, skipping");
+            return;
+        }
+        List<PendingRow> rows;
+        do {
+            rows = jdbcTemplate.query(SELECT_PENDING_SQL, (rs, rowNum) -> new PendingRow(
+                    rs.getLong("id"), rs.getLong("movie_id"), rs.getString("change_type")));
+            if (rows.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(PUBLISH_SQL, rows.stream()
+                    .map(row -> new Object[]{row.movieId(), row.changeType()})
+                    .toList());
+            jdbcTemplate.batchUpdate(DELETE_PENDING_SQL, rows.stream()
+                    .map(row -> new Object[]{row.id()})
+                    .toList());
+        } while (rows.size() == SEQUENCE_BATCH_SIZE);
+    }
+
+    /**
+     * Lấy thời điểm hiện tại theo đồng hồ database (UTC), dùng làm mốc cho {@link #recordMoviesModifiedSince}.
+     */
+    public Timestamp currentDatabaseTime() {
+        return jdbcTemplate.queryForObject("SELECT UTC_TIMESTAMP(6)", Timestamp.class);
+    }
+
+    /**
+     * Ghi nhật ký cho các phim được cập nhật hàng loạt (modified_date từ mốc from) bởi một người dùng.
+     *
+     * @param from       Mốc thời gian lấy từ {@link #currentDatabaseTime()} trước khi ghi
+     * @param modifiedBy Người thực hiện
+     * @return Số dòng nhật ký đã ghi
+     */
+    public int recordMoviesModifiedSince(Timestamp from, String modifiedBy) {
+        return jdbcTemplate.update(INSERT_MODIFIED_SINCE_SQL, from, modifiedBy);
+    }
+
+    /**
+     * Xóa nhật ký cũ hơn application.changes.retention-days theo lô nhỏ, chạy theo lịch application.changes.purge-cron.
+     */
+    @Scheduled(cron = "${application.changes.purge-cron:0 30 3 * * *}")
+    public void purgeOldChanges() {
+        try {
+            int deleted;
+            int total = 0;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SQL, properties.getChanges().getRetentionDays());
+                total += deleted;
+            } while (deleted == PURGE_BATCH_SIZE);
+            log.info("Purged {} catalog change rows", total);
+        } catch (Exception e) {
+            log.error("Error purging catalog changes", e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demo.service;
+
+import com.example.demo.enums.LeaderboardPeriod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.*;
+
+/**
+ * Bảng xếp hạng lượt xem theo ngày / tuần / từ trước tới nay bằng Redis ZSET.
+ * <ul>
+ *     <li>LB:views:day:yyyyMMdd  - hết hạn sau DAY_KEY_TTL</li>
+ *     <li>LB:views:week:YYYY-Www - hết hạn sau WEEK_KEY_TTL</li>
+ *     <li>LB:views:all           - không hết hạn, được seed từ movies.view_count khi chưa có marker LB:views:all:seeded</li>
+ * </ul>
+ * Delta lượt xem được cộng bằng ZINCRBY trong một pipeline mỗi lần ViewCountService flush.
+ * ZINCRBY có thể tạo LB:views:all trước khi seed nên seed được dựng ở key tạm rồi cộng dồn vào key đang chạy.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    private static final String KEY_PREFIX = "LB:views:";
+    private static final Duration DAY_KEY_TTL = Duration.ofDays(2);
+    private static final Duration WEEK_KEY_TTL = Duration.ofDays(14);
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String SEED_SQL = "SELECT movie_id, view_count FROM movies WHERE view_count > 0";
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final String ALL_KEY = KEY_PREFIX + "all";
+    private static final String SEEDED_KEY = ALL_KEY + ":seeded";
+    private static final String SEED_LOCK_KEY = ALL_KEY + ":seed-lock";
+    private static final String SEED_KEY = ALL_KEY + ":seed";
+    private static final String SEED_BASE_KEY = ALL_KEY + ":seed-base";
+    private static final Duration SEED_LOCK_TTL = Duration.ofMinutes(5);
+
+    // Cộng seed vào key đang chạy và trừ bản chụp key đang chạy lúc đọc database (delta đó đã nằm trong view_count)
+    private static final RedisScript<Long> MERGE_SEED_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[4]) == 1 then redis.call('DEL', KEYS[2], KEYS[3]) return 0 end " +
+                    "redis.call('ZUNIONSTORE', KEYS[1], 3, KEYS[1], KEYS[2], KEYS[3], " +
+                    "'WEIGHTS', 1, 1, -1, 'AGGREGATE', 'SUM') " +
+                    "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', 0) " +
+                    "redis.call('SET', KEYS[4], '1') " +
+                    "redis.call('DEL', KEYS[2], KEYS[3]) " +
+                    "return 1",
+            Long.class);
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final MovieSearchService movieSearchService;
+    private final String lockOwner = UUID.randomUUID().toString();
+
+    /**
+     * Cộng delta lượt xem vào các bảng xếp hạng (một round trip pipeline).
+     * Chỉ cộng cho phim đang active: LB:views:all không hết hạn nên id lạ sẽ nằm lại vĩnh viễn.
+     * Mất marker seed (Redis bị xóa) thì seed lại.
+     *
+     * @param deltas movieId -> số lượt xem mới
+     */
+    public void onViews(Map<Long, Long> deltas) {
+        Map<Long, Long> knownDeltas = new HashMap<>();
+        deltas.forEach((movieId, delta) -> {
+            if (movieSearchService.isActiveMovie(movieId)) {
+                knownDeltas.put(movieId, delta);
+            }
+        });
+        if (knownDeltas.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        String dayKey = key(LeaderboardPeriod.DAY, today);
+        String weekKey = key(LeaderboardPeriod.WEEK, today);
+        String allKey = key(LeaderboardPeriod.ALL, today);
+        List<Object> results;
+        try {
+            results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                knownDeltas.forEach((movieId, delta) -> {
+                    String member = movieId.toString();
+                    stringConnection.zIncrBy(dayKey, delta, member);
+                    stringConnection.zIncrBy(weekKey, delta, member);
+                    stringConnection.zIncrBy(allKey, delta, member);
+                });
+                stringConnection.expire(dayKey, DAY_KEY_TTL.getSeconds());
+                stringConnection.expire(weekKey, WEEK_KEY_TTL.getSeconds());
+                stringConnection.exists(SEEDED_KEY);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            // Bảng xếp hạng là dữ liệu gần đúng, không thử lại
+            log.error("Error updating view leaderboards: {}", e.getMessage());
+            return;
+        }
+        if (!Boolean.TRUE.equals(results.get(results.size() - 1))) {
+            seedAllTimeLeaderboard();
+        }
+    }
+
+    /**
+     * Top phim nhiều lượt xem nhất trong kỳ (ZREVRANGE).
+     *
+     * @param period Kỳ xếp hạng
+     * @param limit  Số phim tối đa
+     * @return List movieId theo lượt xem giảm dần (rỗng nếu Redis lỗi)
+     */
+    public List<Long> getTopMovieIds(LeaderboardPeriod period, int limit) {
+        try {
+            Set<String> members = stringRedisTemplate.opsForZSet()
+                    .reverseRange(key(period, LocalDate.now(ZoneId.systemDefault())), 0, limit - 1);
+            if (members == null) {
+                return List.of();
+            }
+            return members.stream().map(Long::valueOf).toList();
+        } catch (DataAccessException e) {
+            log.error("Error reading view leaderboard {}: {}", period, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Seed bảng xếp hạng từ trước tới nay bằng movies.view_count nếu chưa seed (Redis mới / bị xóa).
+     * Chỉ một node seed (lock); seed dựng ở key tạm rồi cộng dồn bằng ZUNIONSTORE SUM nên lượt xem các node
+     * đã ZINCRBY vào key đang chạy trong lúc seed không bị mất.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAllTimeLeaderboard() {
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(SEEDED_KEY))
+                    || !Boolean.TRUE.equals(stringRedisTemplate.opsForValue()
+                    .setIfAbsent(SEED_LOCK_KEY, lockOwner, SEED_LOCK_TTL))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.error("Error checking all-time view leaderboard seed: {}", e.getMessage());
+            return;
+        }
+        try {
+            // Chụp key đang chạy ngay trước khi đọc database: delta trong bản chụp đã được flush vào view_count
+            stringRedisTemplate.delete(List.of(SEED_KEY, SEED_BASE_KEY));
+            stringRedisTemplate.opsForZSet().unionAndStore(ALL_KEY, List.of(), SEED_BASE_KEY);
+            stringRedisTemplate.expire(SEED_BASE_KEY, SEED_LOCK_TTL);
+            List<long[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            int[] total = {0};
+            jdbcTemplate.query(SEED_SQL, rs -> {
+                batch.add(new long[]{rs.getLong("movie_id"), rs.getLong("view_count")});
+                if (batch.size() >= SEED_BATCH_SIZE) {
+                    total[0] += seedBatch(batch);
+                }
+            });
+            total[0] += seedBatch(batch);
+            Long merged = stringRedisTemplate.execute(MERGE_SEED_SCRIPT,
+                    List.of(ALL_KEY, SEED_KEY, SEED_BASE_KEY, SEEDED_KEY));
+            if (merged != null && merged == 1L) {
+                log.info("Seeded all-time view leaderboard with {} movies", total[0]);
+            }
+        } catch (Exception e) {
+            log.error("Error seeding all-time view leaderboard", e);
+        } finally {
+            releaseSeedLock();
+        }
+    }
+
+    private int seedBatch(List<long[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (long[] row : batch) {
+                stringConnection.zAdd(SEED_KEY, row[1], Long.toString(row[0]));
+            }
+            stringConnection.expire(SEED_KEY, SEED_LOCK_TTL.getSeconds());
+            return null;
+        });
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    private void releaseSeedLock() {
+        try {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(SEED_LOCK_KEY), lockOwner);
+        } catch (DataAccessException e) {
+            log.warn("Cannot release leaderboard seed lock: {}", e.getMessage());
+        }
+    }
+
+    private String key(LeaderboardPeriod period, LocalDate day) {
+        return switch (period) {
+            case DAY -> KEY_PREFIX + "day:" + DAY_FORMAT.format(day);
+            case WEEK -> KEY_PREFIX + "week:" + day.get(IsoFields.WEEK_BASED_YEAR)
+                    + "-W" + String.format("%02d", day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case ALL -> ALL_KEY;
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.dto.search.CursorPage;
+import com.example.demo.enums.MovieSort;
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+import com.example.demo.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Duyệt phim theo thể loại bằng phân trang keyset (seek) trên (category_id, sort key, movie_id).
+ * Mỗi trang chỉ đọc size + 1 dòng từ vị trí cursor trên index, chi phí không tăng theo độ sâu.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MovieBrowseService {
+
+    private static final String ACTIVE_STATUS = "ACTIVE";
+    private static final String NULL_KEY = "~";
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final MovieRepository movieRepository;
+
+    /**
+     * Cursor giải mã: giá trị sort key (null nếu phim không có giá trị) và movieId của phần tử cuối trang trước.
+     */
+    private record Cursor(MovieSort sort, Comparable<?> key, Long movieId) {
+    }
+
+    /**
+     * Lấy một trang phim của thể loại.
+     *
+     * @param categoryId Id thể loại
+     * @param sort       Kiểu sắp xếp (mới nhất, phổ biến, rating)
+     * @param cursor     Cursor trả về từ trang trước (null cho trang đầu)
+     * @param size       Số phim mỗi trang
+     * @return CursorPage chứa danh sách thẻ phim và cursor trang kế tiếp
+     */
+    public CursorPage<MovieCardDTO> browseCategory(Long categoryId, MovieSort sort, String cursor, int size) {
+        Cursor after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor, sort) : null;
+        List<MovieCardDTO> movies = movieRepository.findCardsByCategory(categoryId, ACTIVE_STATUS, sort,
+                after != null ? after.key() : null, after != null ? after.movieId() : null, size + 1);
+
+        boolean hasNext = movies.size() > size;
+        List<MovieCardDTO> page = hasNext ? List.copyOf(movies.subList(0, size)) : movies;
+        String nextCursor = hasNext ? encodeCursor(sort, page.get(page.size() - 1)) : null;
+        return new CursorPage<>(page, nextCursor);
+    }
+
+    private String encodeCursor(MovieSort sort, MovieCardDTO last) {
+        Object key = switch (sort) {
+            case NEWEST -> last.createdDate();
+            case POPULAR -> last.viewCount();
+            case RATING -> last.rating();
+        };
+        String raw = sort.name() + CURSOR_SEPARATOR + (key != null ? key : NULL_KEY) + CURSOR_SEPARATOR + last.movieId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor, MovieSort sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + CURSOR_SEPARATOR);
+            if (parts.length != 3 || !sort.name().equals(parts[0])) {
+                throw new ApiInternalException(ErrorMessage.VALIDATION_ERROR, "Invalid cursor");
+            }
+            Comparable<?> key = null;
+            if (!NULL_KEY.equals(parts[1])) {
+                key = switch (sort) {
+                    case NEWEST -> Instant.parse(parts[1]);
+                    case POPULAR -> Long.parseLong(parts[1]);
+                    case RATING -> Double.parseDouble(parts[1]);
+                };
+            }
+            return new Cursor(sort, key, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ApiInternalException(ErrorMessage.VALIDATION_ERROR, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Category;
+import com.example.demo.domain.Movie;
+import com.example.demo.dto.movie.MovieImportResultDTO;
+import com.example.demo.enums.CatalogChangeType;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.security.SecurityUtils;
+import com.example.demo.utils.StreamingRowReader;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Import phim hàng loạt từ file .xlsx (POI SAX, không load cả workbook) hoặc .csv.
+ * Dòng được gom thành chunk, validate song song trên thread pool, sau đó ghi tuần tự theo thứ tự file
+ * bằng JDBC batch upsert. Số chunk đang xử lý bị giới hạn nên bộ nhớ không tăng theo kích thước file.
+ * <p>
+ * Cột: movieId (trống = thêm mới), title*, categoryName*, description, thumbnailUrl, posterUrl,
+ * trailerUrl, videoUrl, duration (phút), releaseDate (yyyy-MM-dd), rating (0-5), status (ACTIVE / INACTIVE).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovieImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_ERRORS = 100;
+    // Độ dài cột VARCHAR mặc định của bảng movies
+    private static final int MAX_VARCHAR_LENGTH = 255;
+    private static final double MAX_RATING = 5.0;
+    private static final Set<String> STATUSES = Set.of("ACTIVE", "INACTIVE");
+
+    private static final int COL_MOVIE_ID = 0;
+    private static final int COL_TITLE = 1;
+    private static final int COL_CATEGORY = 2;
+    private static final int COL_DESCRIPTION = 3;
+    private static final int COL_THUMBNAIL_URL = 4;
+    private static final int COL_POSTER_URL = 5;
+    private static final int COL_TRAILER_URL = 6;
+    private static final int COL_VIDEO_URL = 7;
+    private static final int COL_DURATION = 8;
+    private static final int COL_RELEASE_DATE = 9;
+    private static final int COL_RATING = 10;
+    private static final int COL_STATUS = 11;
+
+    // movie_id NULL thì MySQL tự sinh id (thêm mới), trùng id thì cập nhật.
+    // Không ghi đè rating của phim đã có lượt đánh giá thật.
+    private static final String UPSERT_SQL = "INSERT INTO movies (movie_id, title, category_id, description, " +
+            "thumbnail_url, poster_url, trailer_url, video_url, duration, release_date, rating, status, " +
+            "view_count, rating_sum, rating_count, created_by, created_date, modified_by, modified_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, ?, UTC_TIMESTAMP(6), ?, UTC_TIMESTAMP(6)) " +
+            "ON DUPLICATE KEY UPDATE title = VALUES(title), category_id = VALUES(category_id), " +
+            "description = VALUES(description), thumbnail_url = VALUES(thumbnail_url), poster_url = VALUES(poster_url), " +
+            "trailer_url = VALUES(trailer_url), video_url = VALUES(video_url), duration = VALUES(duration), " +
+            "release_date = VALUES(release_date), rating = IF(rating_count > 0, rating, VALUES(rating)), " +
+            "status = VALUES(status), modified_by = VALUES(modified_by), modified_date = VALUES(modified_date)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogChangeService catalogChangeService;
+    private final int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private final ExecutorService validationExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+        Thread thread = new Thread(r, "movie-import-validation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record RawRow(int rowNumber, List<String> cells) {
+    }
+
+    private record ChunkResult(List<Object[]> batchArgs, List<Integer> rowNumbers, List<String> errors) {
+    }
+
+    /**
+     * Trạng thái của một lần import: các chunk đang validate (giữ thứ tự file) và thống kê.
+     */
+    private class ImportJob {
+
+        private final Map<String, Long> categoryIds;
+        private final String userLogin;
+        private final Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+        private final List<String> errors = new ArrayList<>();
+        private List<RawRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        private boolean headerSkipped;
+        private int totalRows;
+        private int importedRows;
+        private int failedRows;
+
+        ImportJob(Map<String, Long> categoryIds, String userLogin) {
+            this.categoryIds = categoryIds;
+            this.userLogin = userLogin;
+        }
+
+        void accept(int rowNumber, List<String> cells) {
+            if (!headerSkipped) {
+                headerSkipped = true; // dòng có dữ liệu đầu tiên là header (có thể không nằm ở dòng 0)
+                return;
+            }
+            totalRows++;
+            chunk.add(new RawRow(rowNumber, cells));
+            if (chunk.size() >= CHUNK_SIZE) {
+                submitChunk();
+            }
+        }
+
+        private void submitChunk() {
+            List<RawRow> rows = chunk;
+            chunk = new ArrayList<>(CHUNK_SIZE);
+            inFlight.add(validationExecutor.submit(() -> validate(rows, categoryIds, userLogin)));
+            // Giới hạn số chunk đang chờ để bộ nhớ không phụ thuộc kích thước file
+            while (inFlight.size() > parallelism * 2) {
+                writeNext();
+            }
+        }
+
+        private void writeNext() {
+            ChunkResult result;
+            try {
+                result = inFlight.poll().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiInternalException(ErrorMessage.UNHANDLED_ERROR, "Import interrupted");
+            } catch (ExecutionException e) {
+                throw new ApiInternalException(ErrorMessage.UNHANDLED_ERROR, e.getCause().getMessage());
+            }
+            if (!result.batchArgs().isEmpty()) {
+                try {
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, result.batchArgs());
+                    importedRows += result.batchArgs().size();
+                } catch (DataAccessException e) {
+                    // Dòng đã validate nhưng DB vẫn từ chối: ghi lại từng dòng để chỉ dòng lỗi bị bỏ qua
+                    log.warn("Batch upsert failed, retrying {} rows one by one", result.batchArgs().size(), e);
+                    writeRowByRow(result);
+                }
+            }
+            result.errors().forEach(this::addError);
+        }
+
+        private void writeRowByRow(ChunkResult result) {
+            for (int i = 0; i < result.batchArgs().size(); i++) {
+                try {
+                    jdbcTemplate.update(UPSERT_SQL, result.batchArgs().get(i));
+                    importedRows++;
+                } catch (DataAccessException e) {
+                    addError(rowError(result.rowNumbers().get(i), e.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+
+        private void addError(String error) {
+            failedRows++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        MovieImportResultDTO finish() {
+            if (!chunk.isEmpty()) {
+                submitChunk();
+            }
+            while (!inFlight.isEmpty()) {
+                writeNext();
+            }
+            return new MovieImportResultDTO(totalRows, importedRows, failedRows, List.copyOf(errors));
+        }
+
+        void cancel() {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Import phim từ file .xlsx hoặc .csv.
+     *
+     * @param file File upload
+     * @return MovieImportResultDTO
+     */
+    public MovieImportResultDTO importMovies(MultipartFile file) {
+        String filename = StringUtils.defaultString(file.getOriginalFilename()).toLowerCase(Locale.ROOT);
+        boolean xlsx = filename.endsWith(".xlsx");
+        if (!xlsx && !filename.endsWith(".csv")) {
+            throw new ApiInternalException(ErrorMessage.VALIDATION_ERROR, "Only .xlsx and .csv files are supported");
+        }
+
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoryIds.put(normalizeKey(category.getCategoryName()), category.getCategoryId());
+        }
+        String userLogin = SecurityUtils.getCurrentUserLogin().orElse("system");
+
+        long start = System.currentTimeMillis();
+        Timestamp importStart = catalogChangeService.currentDatabaseTime();
+        ImportJob job = new ImportJob(categoryIds, userLogin);
+        MovieImportResultDTO result;
+        try {
+            if (xlsx) {
+                // OPCPackage cần File để đọc zip theo từng entry thay vì giữ cả file trong bộ nhớ
+                File temp = Files.createTempFile("movie-import-", ".xlsx").toFile();
+                try {
+                    file.transferTo(temp);
+                    StreamingRowReader.readXlsx(temp, job::accept);
+                } finally {
+                    Files.deleteIfExists(temp.toPath());
+                }
+            } else {
+                StreamingRowReader.readCsv(file.getInputStream(), job::accept);
+            }
+            result = job.finish();
+        } catch (ApiInternalException e) {
+            job.cancel();
+            throw e;
+        } catch (Exception e) {
+            job.cancel();
+            log.error("Error importing movies from {}", filename, e);
+            throw new ApiInternalException(ErrorMessage.UNHANDLED_ERROR, e.getMessage());
+        } finally {
+            if (job.importedRows > 0) {
+                // Ghi nhật ký thay đổi cho client đồng bộ delta theo modified_date của các dòng vừa ghi
+                catalogChangeService.recordMoviesModifiedSince(importStart, userLogin);
+                // Thay đổi hàng loạt: search index, snapshot trang chủ và cache phim build lại toàn bộ
+                eventPublisher.publishEvent(new CatalogChangedEvent(Movie.class, null, CatalogChangeType.UPDATED));
+            }
+        }
+        log.info("Imported {}/{} movies from {} in {} ms", result.importedRows(), result.totalRows(), filename,
+                System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private ChunkResult validate(List<RawRow> rows, Map<String, Long> categoryIds, String userLogin) {
+        List<Object[]> batchArgs = new ArrayList<>(rows.size());
+        List<Integer> rowNumbers = new ArrayList<>(rows.size());
+        List<String> errors = new ArrayList<>();
+        for (RawRow row : rows) {
+            try {
+                batchArgs.add(toBatchArgs(row.cells(), categoryIds, userLogin));
+                rowNumbers.add(row.rowNumber());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errors.add(rowError(row.rowNumber(), e.getMessage()));
+            }
+        }
+        return new ChunkResult(batchArgs, rowNumbers, errors);
+    }
+
+    private static String rowError(int rowNumber, String message) {
+        return "Row " + (rowNumber + 1) + ": " + message;
+    }
+
+    // Validate đủ mọi cột ở đây: một giá trị DB từ chối sẽ làm hỏng cả JDBC batch của chunk
+    private Object[] toBatchArgs(List<String> cells, Map<String, Long> categoryIds, String userLogin) {
+        String title = varchar(cells, COL_TITLE, "title");
+        if (title == null) {
+            throw new IllegalArgumentException("title is required");
+        }
+        String categoryName = cell(cells, COL_CATEGORY);
+        if (categoryName == null) {
+            throw new IllegalArgumentException("categoryName is required");
+        }
+        Long categoryId = categoryIds.get(normalizeKey(categoryName));
+        if (categoryId == null) {
+            throw new IllegalArgumentException("category not found: " + categoryName);
+        }
+
+        Long movieId = parseWholeNumber(cell(cells, COL_MOVIE_ID), "movieId");
+        if (movieId != null && movieId <= 0) {
+            throw new IllegalArgumentException("movieId must be positive");
+        }
+        Long duration = parseWholeNumber(cell(cells, COL_DURATION), "duration");
+        if (duration != null && (duration < 0 || duration > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("duration is out of range");
+        }
+        String releaseDateValue = cell(cells, COL_RELEASE_DATE);
+        LocalDate releaseDate = releaseDateValue != null ? LocalDate.parse(releaseDateValue) : null;
+        String ratingValue = cell(cells, COL_RATING);
+        double rating = ratingValue != null ? Double.parseDouble(ratingValue) : 0.0;
+        // Viết dạng phủ định để NaN cũng bị chặn
+        if (!(rating >= 0 && rating <= MAX_RATING)) {
+            throw new IllegalArgumentException("rating must be between 0 and 5");
+        }
+        String status = StringUtils.defaultIfBlank(cell(cells, COL_STATUS), "ACTIVE").toUpperCase(Locale.ROOT);
+        if (!STATUSES.contains(status)) {
+            throw new IllegalArgumentException("invalid status: " + status);
+        }
+
+        return new Object[]{movieId, title, categoryId, cell(cells, COL_DESCRIPTION),
+                varchar(cells, COL_THUMBNAIL_URL, "thumbnailUrl"), varchar(cells, COL_POSTER_URL, "posterUrl"),
+                varchar(cells, COL_TRAILER_URL, "trailerUrl"), varchar(cells, COL_VIDEO_URL, "videoUrl"),
+                duration != null ? duration.intValue() : null, releaseDate, rating, status, userLogin, userLogin};
+    }
+
+    private String cell(List<String> cells, int index) {
+        return index < cells.size() ? cells.get(index) : null;
+    }
+
+    private String varchar(List<String> cells, int index, String column) {
+        String value = cell(cells, index);
+        if (value != null && value.length() > MAX_VARCHAR_LENGTH) {
+            throw new IllegalArgumentException(column + " must not exceed " + MAX_VARCHAR_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    // Excel có thể trả số nguyên dạng "120.0"
+    private Long parseWholeNumber(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            // Không phải số nguyên thuần, thử dạng "120.0"
+        }
+        double number = Double.parseDouble(value);
+        if (!Double.isFinite(number) || number != Math.rint(number)
+                || Math.abs(number) >= Long.MAX_VALUE) {
+            throw new IllegalArgumentException(column + " must be a whole number");
+        }
+        return (long) number;
+    }
+
+    private String normalizeKey(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void shutdownExecutor() {
+        validationExecutor.shutdownNow();
+    }
+}
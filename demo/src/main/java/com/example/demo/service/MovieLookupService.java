@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ApplicationProperties;
+import com.example.demo.domain.Movie;
+import com.example.demo.dto.movie.MovieDTO;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.event.MovieRatedEvent;
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+import com.example.demo.repository.MovieRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Tra cứu thông tin chi tiết phim theo id qua cache local (Caffeine) theo từng phim.
+ * Các id chưa có trong cache được load bằng một truy vấn WHERE movie_id IN (...).
+ * Cache bị xóa theo CatalogChangedEvent; TTL giới hạn độ cũ của viewCount (được cập nhật bằng JDBC, không phát event).
+ */
+@Service
+@Transactional(readOnly = true)
+public class MovieLookupService {
+
+    private static final String ACTIVE_STATUS = "ACTIVE";
+
+    private final MovieRepository movieRepository;
+    private final ApplicationProperties properties;
+    private final Cache<Long, MovieDTO> movieCache;
+
+    public MovieLookupService(MovieRepository movieRepository, ApplicationProperties properties) {
+        this.movieRepository = movieRepository;
+        this.properties = properties;
+        this.movieCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMovies().getCacheMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(properties.getMovies().getCacheTtlSeconds()))
+                .build();
+    }
+
+    /**
+     * Lấy thông tin chi tiết đầy đủ của một phim đang active.
+     *
+     * @param movieId Id phim
+     * @return MovieDTO
+     */
+    public MovieDTO getMovie(Long movieId) {
+        MovieDTO movie = getMovies(List.of(movieId)).get(movieId);
+        if (movie == null) {
+            throw ApiInternalException.error(ErrorMessage.MOVIE_NOT_FOUND);
+        }
+        return movie;
+    }
+
+    /**
+     * Lấy thông tin nhiều phim một lần, giữ thứ tự id truyền vào.
+     * Id không tồn tại hoặc không active bị bỏ qua.
+     *
+     * @param movieIds Danh sách id (tối đa application.movies.batch-max-size)
+     * @return List MovieDTO
+     */
+    public List<MovieDTO> getMoviesInOrder(List<Long> movieIds) {
+        if (movieIds == null || movieIds.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> uniqueIds = movieIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (uniqueIds.size() > properties.getMovies().getBatchMaxSize()) {
+            throw new ApiInternalException(ErrorMessage.VALIDATION_ERROR,
+                    "Too many movie ids, max " + properties.getMovies().getBatchMaxSize());
+        }
+        Map<Long, MovieDTO> movies = getMovies(uniqueIds);
+        return uniqueIds.stream()
+                .map(movies::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, MovieDTO> getMovies(Collection<Long> movieIds) {
+        // Cache hit trả ngay, các id còn lại được load trong một truy vấn IN
+        return movieCache.getAll(movieIds, this::loadMovies);
+    }
+
+    private Map<Long, MovieDTO> loadMovies(Set<? extends Long> movieIds) {
+        Map<Long, MovieDTO> result = new HashMap<>();
+        for (Movie movie : movieRepository.findByMovieIdInAndStatus(new ArrayList<>(movieIds), ACTIVE_STATUS)) {
+            result.put(movie.getMovieId(), MovieDTO.fromEntity(movie));
+        }
+        return result;
+    }
+
+    /**
+     * Xóa cache khi Movie / Category thay đổi. MovieDTO chứa CategoryDTO nên thay đổi thể loại
+     * hoặc thay đổi hàng loạt (entityId null) sẽ xóa toàn bộ cache.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.entityId() != null && Movie.class.equals(event.entityType())) {
+            movieCache.invalidate((Long) event.entityId());
+        } else {
+            movieCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Đánh giá phim chỉ đổi điểm của phim đó: xóa riêng entry của phim.
+     */
+    @TransactionalEventListener
+    public void onMovieRated(MovieRatedEvent event) {
+        movieCache.invalidate(event.movieId());
+    }
+}
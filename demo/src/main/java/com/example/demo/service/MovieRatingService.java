@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.MovieRating;
+import com.example.demo.domain.User;
+import com.example.demo.dto.movie.MovieRatingDTO;
+import com.example.demo.event.MovieRatedEvent;
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+import com.example.demo.repository.MovieRatingRepository;
+import com.example.demo.repository.MovieRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Lưu đánh giá của từng người dùng và cập nhật tổng điểm / số lượt đánh giá của phim theo delta,
+ * không tính lại AVG trên bảng movie_ratings. Movie.rating luôn là trung bình hiện tại nên đọc O(1).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class MovieRatingService {
+
+    private static final String ACTIVE_STATUS = "ACTIVE";
+    private static final int MIN_SCORE = 1;
+    private static final int MAX_SCORE = 5;
+
+    private static final String INSERT_RATING_SQL = "INSERT INTO movie_ratings (user_id, movie_id, score, " +
+            "created_by, created_date, modified_by, modified_date) " +
+            "VALUES (?, ?, ?, ?, UTC_TIMESTAMP(6), ?, UTC_TIMESTAMP(6))";
+
+    private final MovieRatingRepository movieRatingRepository;
+    private final MovieRepository movieRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Đánh giá phim cho người dùng hiện tại. Đánh giá lại chỉ cộng phần chênh lệch điểm, không tăng số lượt.
+     *
+     * @param movieId Id phim
+     * @param score   Điểm từ 1 đến 5
+     * @return MovieRatingDTO với điểm trung bình mới
+     */
+    public MovieRatingDTO rate(Long movieId, Integer score) {
+        if (score == null || score < MIN_SCORE || score > MAX_SCORE) {
+            throw new ApiInternalException(ErrorMessage.VALIDATION_ERROR, "Score must be between 1 and 5");
+        }
+        String userLogin = SecurityUtils.getCurrentUserLogin()
+                .orElseThrow(() -> new ApiInternalException(ErrorMessage.ACCESS_DENIED));
+        User user = userRepository.findByUsername(userLogin)
+                .orElseThrow(() -> new ApiInternalException(ErrorMessage.USER_NOT_FOUND));
+
+        Long userId = user.getUserId();
+        Optional<MovieRating> existing = movieRatingRepository.existsByUserIdAndMovieId(userId, movieId)
+                ? movieRatingRepository.findByUserIdAndMovieId(userId, movieId)
+                : Optional.empty();
+        if (existing.isEmpty() && !insertRating(userId, movieId, score, userLogin)) {
+            // Request đồng thời (double submit) vừa tạo đánh giá trước: xử lý như đánh giá lại
+            existing = movieRatingRepository.findByUserIdAndMovieId(userId, movieId);
+            if (existing.isEmpty()) {
+                throw new ApiInternalException(ErrorMessage.UNHANDLED_ERROR, "Could not save rating");
+            }
+        }
+
+        long sumDelta;
+        long countDelta;
+        if (existing.isPresent()) {
+            MovieRating rating = existing.get();
+            if (rating.getScore().equals(score)) {
+                return currentSummary(movieId, score);
+            }
+            sumDelta = score - rating.getScore();
+            countDelta = 0;
+            rating.setScore(score);
+        } else {
+            sumDelta = score;
+            countDelta = 1;
+        }
+
+        if (movieRepository.applyRating(movieId, ACTIVE_STATUS, sumDelta, countDelta) == 0) {
+            throw new ApiInternalException(ErrorMessage.MOVIE_NOT_FOUND);
+        }
+        // applyRating là bulk update nên không qua CatalogEntityListener. Không phát CatalogChangedEvent:
+        // mỗi lượt đánh giá sẽ xóa cache trang chủ cả cluster; event riêng chỉ cập nhật dữ liệu của phim này
+        MovieRatingDTO summary = currentSummary(movieId, score);
+        eventPublisher.publishEvent(new MovieRatedEvent(movieId, score, summary.rating()));
+        return summary;
+    }
+
+    /**
+     * Insert đánh giá đầu tiên bằng JDBC: lỗi trùng unique key không đánh dấu transaction rollback-only
+     * như khi đi qua repository, nên request thua trong lượt double submit có thể chuyển sang cập nhật.
+     *
+     * @return false nếu đánh giá của user cho phim đã tồn tại
+     */
+    private boolean insertRating(Long userId, Long movieId, Integer score, String userLogin) {
+        try {
+            jdbcTemplate.update(INSERT_RATING_SQL, userId, movieId, score, userLogin, userLogin);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private MovieRatingDTO currentSummary(Long movieId, Integer score) {
+        MovieRatingDTO summary = movieRepository.findRatingSummary(movieId);
+        if (summary == null) {
+            throw new ApiInternalException(ErrorMessage.MOVIE_NOT_FOUND);
+        }
+        return summary.withScore(score);
+    }
+}
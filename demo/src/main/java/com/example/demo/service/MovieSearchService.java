@@ -0,0 +1,334 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Category;
+import com.example.demo.domain.Movie;
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.event.MovieRatedEvent;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.MovieRepository;
+import com.example.demo.utils.BoundedTopK;
+import com.example.demo.utils.PrefixTrie;
+import com.example.demo.utils.TextUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Chỉ mục tìm kiếm phim trong bộ nhớ (inverted index) trên title / description / tên thể loại.
+ * Từ khóa được bỏ dấu tiếng Việt nên "phim hanh dong" khớp "phim hành động".
+ * Từ cuối của câu truy vấn được tìm theo tiền tố qua trie (type-ahead).
+ * Chỉ mục được build khi khởi động và cập nhật từng phim theo CatalogChangedEvent, không dùng LIKE trên MySQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovieSearchService {
+
+    private static final String ACTIVE_STATUS = "ACTIVE";
+    private static final int TITLE_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // Bit đánh dấu trường chứa từ, trọng số của từ = tổng trọng số các trường chứa nó
+    private static final int TITLE_WEIGHT_BIT = 1;
+    private static final int CATEGORY_WEIGHT_BIT = 2;
+    private static final int DESCRIPTION_WEIGHT_BIT = 4;
+    private static final int MAX_PREFIX_TERMS = 200;
+    private static final int MAX_QUERY_TOKENS = 10;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final MovieRepository movieRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, IndexedMovie> documents = new HashMap<>();
+    private Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private PrefixTrie trie = new PrefixTrie();
+    private volatile boolean indexReady;
+
+    private record IndexedMovie(Long movieId, String title, String thumbnailUrl, String posterUrl, Double rating,
+                                Long viewCount, Long categoryId, String categoryName, Instant createdDate,
+                                Map<String, Integer> terms) {
+    }
+
+    /**
+     * Tìm phim theo từ khóa (AND giữa các từ, từ cuối khớp theo tiền tố).
+     * Xếp hạng theo trọng số trường (title > thể loại > mô tả), sau đó theo lượt xem.
+     *
+     * @param query Từ khóa
+     * @param limit Số kết quả tối đa
+     * @return List MovieCardDTO
+     */
+    public List<MovieCardDTO> search(String query, int limit) {
+        List<String> tokens = TextUtils.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        if (tokens.size() > MAX_QUERY_TOKENS) {
+            tokens = tokens.subList(0, MAX_QUERY_TOKENS);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                Map<Long, Integer> matches = i == tokens.size() - 1 ? matchPrefix(tokens.get(i)) : matchExact(tokens.get(i));
+                if (scores == null) {
+                    scores = new HashMap<>(matches);
+                } else {
+                    scores.keySet().retainAll(matches.keySet());
+                    scores.replaceAll((movieId, score) -> score + matches.get(movieId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            BoundedTopK<IndexedMovie> top = new BoundedTopK<>(limit);
+            scores.forEach((movieId, score) -> {
+                IndexedMovie movie = documents.get(movieId);
+                top.offer(movie, score, movie.viewCount() != null ? movie.viewCount() : 0L);
+            });
+            return top.toSortedList().stream()
+                    .map(this::toDTO)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gợi ý tiêu đề phim khi đang gõ.
+     *
+     * @param query Chuỗi đang gõ
+     * @param limit Số gợi ý tối đa
+     * @return List tiêu đề phim
+     */
+    public List<String> suggest(String query, int limit) {
+        return search(query, limit).stream()
+                .map(MovieCardDTO::title)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Phim có đang active không, tra trong chỉ mục (không truy cập database).
+     * Trước khi chỉ mục build xong lần đầu thì hỏi database.
+     *
+     * @param movieId Id phim
+     * @return true nếu phim tồn tại và đang active
+     */
+    public boolean isActiveMovie(Long movieId) {
+        if (movieId == null) {
+            return false;
+        }
+        if (!indexReady) {
+            return movieRepository.existsByMovieIdAndStatus(movieId, ACTIVE_STATUS);
+        }
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(movieId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> matchExact(String term) {
+        return postings.getOrDefault(term, Map.of());
+    }
+
+    private Map<Long, Integer> matchPrefix(String prefix) {
+        Map<Long, Integer> matches = new HashMap<>();
+        for (String term : trie.startsWith(prefix, MAX_PREFIX_TERMS)) {
+            postings.getOrDefault(term, Map.of()).forEach((movieId, weight) -> matches.merge(movieId, weight, Math::max));
+        }
+        return matches;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        Map<Long, IndexedMovie> newDocuments = new HashMap<>();
+        Map<String, Map<Long, Integer>> newPostings = new HashMap<>();
+        PrefixTrie newTrie = new PrefixTrie();
+
+        Slice<Movie> slice = movieRepository.findByStatus(ACTIVE_STATUS,
+                PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("movieId")));
+        while (true) {
+            for (Movie movie : slice.getContent()) {
+                IndexedMovie indexed = toIndexed(movie);
+                newDocuments.put(indexed.movieId(), indexed);
+                addPostings(indexed, newPostings, newTrie);
+            }
+            if (!slice.hasNext()) {
+                break;
+            }
+            slice = movieRepository.findByStatus(ACTIVE_STATUS, slice.nextPageable());
+        }
+
+        lock.writeLock().lock();
+        try {
+            documents = newDocuments;
+            postings = newPostings;
+            trie = newTrie;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        indexReady = true;
+        log.info("Movie search index built with {} movies and {} terms", newDocuments.size(), newPostings.size());
+    }
+
+    /**
+     * Cập nhật chỉ mục khi Movie / Category thay đổi. entityId null nghĩa là thay đổi hàng loạt: build lại toàn bộ.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            if (event.entityId() == null) {
+                rebuildIndex();
+            } else if (Movie.class.equals(event.entityType())) {
+                reindexMovie((Long) event.entityId());
+            } else if (Category.class.equals(event.entityType())) {
+                reindexCategory((Long) event.entityId());
+            }
+        } catch (Exception e) {
+            log.error("Error updating movie search index for {}", event, e);
+        }
+    }
+
+    /**
+     * Đánh giá không đổi nội dung được index: chỉ thay điểm trung bình của phim, không đọc lại database.
+     */
+    @TransactionalEventListener
+    public void onMovieRated(MovieRatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            documents.computeIfPresent(event.movieId(), (movieId, movie) -> new IndexedMovie(movie.movieId(),
+                    movie.title(), movie.thumbnailUrl(), movie.posterUrl(), event.rating(), movie.viewCount(),
+                    movie.categoryId(), movie.categoryName(), movie.createdDate(), movie.terms()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reindexMovie(Long movieId) {
+        Optional<Movie> movie = movieRepository.findById(movieId)
+                .filter(m -> ACTIVE_STATUS.equals(m.getStatus()));
+        lock.writeLock().lock();
+        try {
+            removeDocument(movieId);
+            movie.ifPresent(m -> {
+                IndexedMovie indexed = toIndexed(m);
+                documents.put(movieId, indexed);
+                addPostings(indexed, postings, trie);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Chỉ cập nhật tên thể loại của các phim đã index, không cần đọc lại phim
+    private void reindexCategory(Long categoryId) {
+        String categoryName = categoryRepository.findById(categoryId).map(Category::getCategoryName).orElse(null);
+        lock.writeLock().lock();
+        try {
+            List<IndexedMovie> affected = documents.values().stream()
+                    .filter(movie -> categoryId.equals(movie.categoryId()))
+                    .toList();
+            for (IndexedMovie movie : affected) {
+                removeDocument(movie.movieId());
+                Map<String, Integer> terms = new HashMap<>();
+                for (Map.Entry<String, Integer> entry : movie.terms().entrySet()) {
+                    int weight = entry.getValue() & ~CATEGORY_WEIGHT_BIT;
+                    if (weight != 0) {
+                        terms.put(entry.getKey(), weight);
+                    }
+                }
+                addTerms(terms, categoryName, CATEGORY_WEIGHT_BIT);
+                IndexedMovie updated = new IndexedMovie(movie.movieId(), movie.title(), movie.thumbnailUrl(),
+                        movie.posterUrl(), movie.rating(), movie.viewCount(), categoryId, categoryName, movie.createdDate(), terms);
+                documents.put(updated.movieId(), updated);
+                addPostings(updated, postings, trie);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(Long movieId) {
+        IndexedMovie existing = documents.remove(movieId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms().keySet()) {
+            Map<Long, Integer> movies = postings.get(term);
+            if (movies != null) {
+                movies.remove(movieId);
+                // Posting list chính là số phim còn chứa từ: rỗng thì gỡ từ khỏi trie để type-ahead không gợi ý từ chết
+                if (movies.isEmpty()) {
+                    postings.remove(term);
+                    trie.remove(term);
+                }
+            }
+        }
+    }
+
+    private IndexedMovie toIndexed(Movie movie) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, movie.getTitle(), TITLE_WEIGHT_BIT);
+        addTerms(terms, movie.getDescription(), DESCRIPTION_WEIGHT_BIT);
+        Category category = movie.getCategory();
+        String categoryName = category != null ? category.getCategoryName() : null;
+        addTerms(terms, categoryName, CATEGORY_WEIGHT_BIT);
+        return new IndexedMovie(movie.getMovieId(), movie.getTitle(), movie.getThumbnailUrl(), movie.getPosterUrl(),
+                movie.getRating(), movie.getViewCount(), category != null ? category.getCategoryId() : null,
+                categoryName, movie.getCreatedDate(), terms);
+    }
+
+    private void addTerms(Map<String, Integer> terms, String text, int fieldBit) {
+        for (String token : TextUtils.tokenize(text)) {
+            terms.merge(token, fieldBit, (a, b) -> a | b);
+        }
+    }
+
+    private void addPostings(IndexedMovie movie, Map<String, Map<Long, Integer>> targetPostings, PrefixTrie targetTrie) {
+        movie.terms().forEach((term, fields) -> {
+            Map<Long, Integer> movies = targetPostings.get(term);
+            if (movies == null) {
+                movies = new HashMap<>();
+                targetPostings.put(term, movies);
+                targetTrie.add(term);
+            }
+            movies.put(movie.movieId(), weightOf(fields));
+        });
+    }
+
+    private int weightOf(int fields) {
+        int weight = 0;
+        if ((fields & TITLE_WEIGHT_BIT) != 0) {
+            weight += TITLE_WEIGHT;
+        }
+        if ((fields & CATEGORY_WEIGHT_BIT) != 0) {
+            weight += CATEGORY_WEIGHT;
+        }
+        if ((fields & DESCRIPTION_WEIGHT_BIT) != 0) {
+            weight += DESCRIPTION_WEIGHT;
+        }
+        return weight;
+    }
+
+    private MovieCardDTO toDTO(IndexedMovie movie) {
+        return new MovieCardDTO(movie.movieId(), movie.title(), movie.thumbnailUrl(), movie.posterUrl(),
+                movie.rating(), movie.viewCount(), movie.categoryId(), movie.categoryName(), movie.createdDate());
+    }
+}
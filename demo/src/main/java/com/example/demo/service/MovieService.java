@@ -1,18 +1,42 @@
 package com.example.demo.service;
 
-import com.example.demo.domain.Movie;
+import com.example.demo.config.ApplicationProperties;
 import com.example.demo.dto.movie.CategoryDTO;
+import com.example.demo.dto.movie.HomeNormalizedDTO;
 import com.example.demo.dto.movie.HomeResponseDTO;
-import com.example.demo.dto.movie.MovieDTO;
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.enums.LeaderboardPeriod;
+import com.example.demo.enums.PopularRanking;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+import com.example.demo.exceptions.ResponseObject;
 import com.example.demo.repository.CategoryRepository;
 import com.example.demo.repository.MovieRepository;
+import com.example.demo.utils.BoundedTopK;
+import com.example.demo.utils.SerializedPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.Comparator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,30 +47,198 @@ public class MovieService {
 
     private final MovieRepository movieRepository;
     private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final RedisHomeCacheService redisHomeCacheService;
+    private final UniqueViewerService uniqueViewerService;
+    private final TrendingService trendingService;
+    private final LeaderboardService leaderboardService;
+    private final ApplicationProperties properties;
 
     private static final int BANNER_LIMIT = 5;
     private static final int MOVIE_LIST_LIMIT = 12;
     private static final String ACTIVE_STATUS = "ACTIVE";
     private static final double MIN_TRENDING_RATING = 4.0;
+    private static final int POPULAR_CANDIDATE_LIMIT = 100;
 
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "home-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile HomeSnapshot homeSnapshot;
+
+    /**
+     * Dữ liệu trang chủ và response đã serialize được swap cùng nhau trong một lần ghi volatile.
+     */
+    private record HomeSnapshot(HomeResponseDTO data, SerializedPayload payload, SerializedPayload normalizedPayload) {
+    }
+
+    /**
+     * Trả về snapshot trang chủ đã được tính sẵn (một lần đọc volatile).
+     * Chỉ truy vấn database khi snapshot chưa được khởi tạo (lúc ứng dụng vừa khởi động).
+     *
+     * @return HomeResponseDTO bất biến
+     */
     public HomeResponseDTO getHomeData() {
-        // Lấy tất cả phim active từ database
-        List<Movie> allActiveMovies = movieRepository.findAll()
-                .stream()
-                .filter(movie -> ACTIVE_STATUS.equals(movie.getStatus()))
-                .collect(Collectors.toList());
+        return currentHomeSnapshot().data();
+    }
+
+    /**
+     * Trả về response trang chủ đã serialize sẵn (JSON UTF-8 + gzip + ETag).
+     *
+     * @return SerializedPayload của ResponseObject chứa HomeResponseDTO
+     */
+    public SerializedPayload getHomePayload() {
+        return currentHomeSnapshot().payload();
+    }
+
+    /**
+     * Trả về response trang chủ dạng chuẩn hóa đã serialize sẵn, mỗi phim chỉ xuất hiện một lần dù nằm ở nhiều rail.
+     *
+     * @return SerializedPayload của ResponseObject chứa HomeNormalizedDTO
+     */
+    public SerializedPayload getNormalizedHomePayload() {
+        return currentHomeSnapshot().normalizedPayload();
+    }
+
+    private HomeSnapshot currentHomeSnapshot() {
+        HomeSnapshot snapshot = homeSnapshot;
+        if (snapshot == null) {
+            snapshot = initHomeSnapshot();
+        }
+        return snapshot;
+    }
+
+    private synchronized HomeSnapshot initHomeSnapshot() {
+        HomeSnapshot snapshot = homeSnapshot;
+        if (snapshot == null) {
+            refreshHomeSnapshot();
+            snapshot = homeSnapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuild snapshot trang chủ định kỳ ở background.
+     */
+    @Scheduled(fixedDelayString = "${application.home.refresh-interval-ms:15000}")
+    public void scheduledRefreshHomeSnapshot() {
+        try {
+            refreshHomeSnapshot();
+        } catch (Exception e) {
+            log.error("Error refreshing home snapshot", e);
+        }
+    }
+
+    /**
+     * Khi Movie / Category thay đổi thì đặt lịch rebuild snapshot.
+     * Nhiều thay đổi liên tiếp được gộp thành một lần rebuild.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (refreshPending.compareAndSet(false, true)) {
+            refreshExecutor.execute(() -> {
+                refreshPending.set(false);
+                redisHomeCacheService.invalidate();
+                scheduledRefreshHomeSnapshot();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdownRefreshExecutor() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Build toàn bộ dữ liệu trang chủ rồi swap snapshot một lần duy nhất,
+     * reader không bao giờ thấy trang đang build dở.
+     *
+     * @return snapshot mới
+     */
+    public synchronized HomeResponseDTO refreshHomeSnapshot() {
+        HomeSnapshot previous = homeSnapshot;
+        // Dùng chung kết quả giữa các node qua Redis, chỉ một node truy vấn database khi cache hết hạn
+        byte[] json = redisHomeCacheService.getOrRebuild(() -> serialize(buildHomeData()));
+        if (json == null) {
+            if (previous != null) {
+                return previous.data();
+            }
+            json = serialize(buildHomeData());
+        }
+        HomeResponseDTO data = toImmutable(deserialize(json, HomeResponseDTO.class));
+        SerializedPayload payload = SerializedPayload.of(
+                serialize(ResponseObject.success(data)), previous != null ? previous.payload() : null);
+        SerializedPayload normalizedPayload = SerializedPayload.of(
+                serialize(ResponseObject.success(normalize(data))), previous != null ? previous.normalizedPayload() : null);
+        homeSnapshot = new HomeSnapshot(data, payload, normalizedPayload);
+        return data;
+    }
+
+    private HomeNormalizedDTO normalize(HomeResponseDTO data) {
+        Map<Long, MovieCardDTO> movies = new LinkedHashMap<>();
+        return HomeNormalizedDTO.builder()
+                .banners(collectIds(data.getBanners(), movies))
+                .newMovies(collectIds(data.getNewMovies(), movies))
+                .popularMovies(collectIds(data.getPopularMovies(), movies))
+                .trendingMovies(collectIds(data.getTrendingMovies(), movies))
+                .movies(movies)
+                .categories(data.getCategories())
+                .build();
+    }
+
+    private List<Long> collectIds(List<MovieCardDTO> rail, Map<Long, MovieCardDTO> movies) {
+        List<Long> ids = new ArrayList<>(rail.size());
+        for (MovieCardDTO movie : rail) {
+            ids.add(movie.movieId());
+            movies.putIfAbsent(movie.movieId(), movie);
+        }
+        return ids;
+    }
+
+    private HomeResponseDTO toImmutable(HomeResponseDTO data) {
+        return HomeResponseDTO.builder()
+                .banners(List.copyOf(data.getBanners()))
+                .newMovies(List.copyOf(data.getNewMovies()))
+                .popularMovies(List.copyOf(data.getPopularMovies()))
+                .trendingMovies(List.copyOf(data.getTrendingMovies()))
+                .categories(List.copyOf(data.getCategories()))
+                .build();
+    }
+
+    private <T> T deserialize(byte[] json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new ApiInternalException(ErrorMessage.UNHANDLED_ERROR, e.getMessage());
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new ApiInternalException(ErrorMessage.UNHANDLED_ERROR, e.getMessage());
+        }
+    }
+
+    private HomeResponseDTO buildHomeData() {
+        // Mỗi rail chỉ đọc đúng số dòng cần trả về (status + ORDER BY + LIMIT trên index)
 
         // Lấy phim cho banner (top rated với poster)
-        List<MovieDTO> banners = getBannerMovies(allActiveMovies);
+        List<MovieCardDTO> banners = getBannerMovies();
 
         // Lấy phim mới nhất
-        List<MovieDTO> newMovies = getNewMovies(allActiveMovies);
+        List<MovieCardDTO> newMovies = getNewMovies();
 
         // Lấy phim phổ biến (theo view count)
-        List<MovieDTO> popularMovies = getPopularMovies(allActiveMovies);
+        List<MovieCardDTO> popularMovies = getPopularMovies();
 
         // Lấy phim trending (theo rating)
-        List<MovieDTO> trendingMovies = getTrendingMovies(allActiveMovies);
+        List<MovieCardDTO> trendingMovies = getTrendingMovies();
 
         // Lấy danh sách thể loại
         List<CategoryDTO> categories = getCategories();
@@ -64,72 +256,108 @@ public class MovieService {
      * Lấy danh sách phim cho banner
      * Điều kiện: có posterUrl, sắp xếp theo rating DESC, viewCount DESC
      * Giới hạn: BANNER_LIMIT phim
-     * 
-     * @param movies Danh sách phim active
-     * @return List MovieDTO cho banner
+     *
+     * @return List MovieCardDTO cho banner
      */
-    private List<MovieDTO> getBannerMovies(List<Movie> movies) {
-        return movies.stream()
-                .filter(movie -> movie.getPosterUrl() != null && !movie.getPosterUrl().isEmpty())
-                .sorted(Comparator
-                        .comparing(Movie::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
-                        .thenComparing(Movie::getViewCount, Comparator.nullsLast(Comparator.reverseOrder())))
-                .limit(BANNER_LIMIT)
-                .map(MovieDTO::fromEntity)
-                .collect(Collectors.toList());
+    private List<MovieCardDTO> getBannerMovies() {
+        return movieRepository.findBannerCards(ACTIVE_STATUS, Limit.of(BANNER_LIMIT));
     }
 
     /**
      * Lấy danh sách phim mới nhất
      * Sắp xếp theo createdDate DESC
      * Giới hạn: MOVIE_LIST_LIMIT phim
-     * 
-     * @param movies Danh sách phim active
-     * @return List MovieDTO phim mới nhất
+     *
+     * @return List MovieCardDTO phim mới nhất
      */
-    private List<MovieDTO> getNewMovies(List<Movie> movies) {
-        return movies.stream()
-                .sorted(Comparator
-                        .comparing(Movie::getCreatedDate, Comparator.nullsLast(Comparator.reverseOrder())))
-                .limit(MOVIE_LIST_LIMIT)
-                .map(MovieDTO::fromEntity)
-                .collect(Collectors.toList());
+    private List<MovieCardDTO> getNewMovies() {
+        return movieRepository.findNewCards(ACTIVE_STATUS, Limit.of(MOVIE_LIST_LIMIT));
     }
 
     /**
      * Lấy danh sách phim phổ biến
      * Sắp xếp theo viewCount DESC
      * Giới hạn: MOVIE_LIST_LIMIT phim
-     * 
-     * @param movies Danh sách phim active
-     * @return List MovieDTO phim phổ biến
+     *
+     * @return List MovieCardDTO phim phổ biến
      */
-    private List<MovieDTO> getPopularMovies(List<Movie> movies) {
-        return movies.stream()
-                .sorted(Comparator
-                        .comparing(Movie::getViewCount, Comparator.nullsLast(Comparator.reverseOrder())))
-                .limit(MOVIE_LIST_LIMIT)
-                .map(MovieDTO::fromEntity)
+    private List<MovieCardDTO> getPopularMovies() {
+        PopularRanking ranking = properties.getHome().getPopularRanking();
+        if (ranking == PopularRanking.UNIQUE_VIEWERS) {
+            return getPopularMoviesByUniqueViewers();
+        }
+        if (ranking == PopularRanking.DAILY_VIEWS || ranking == PopularRanking.WEEKLY_VIEWS
+                || ranking == PopularRanking.ALL_TIME_VIEWS) {
+            List<MovieCardDTO> movies = getPopularMoviesByLeaderboard(switch (ranking) {
+                case DAILY_VIEWS -> LeaderboardPeriod.DAY;
+                case WEEKLY_VIEWS -> LeaderboardPeriod.WEEK;
+                default -> LeaderboardPeriod.ALL;
+            }, MOVIE_LIST_LIMIT);
+            if (!movies.isEmpty()) {
+                return movies;
+            }
+        }
+        return movieRepository.findPopularCards(ACTIVE_STATUS, Limit.of(MOVIE_LIST_LIMIT));
+    }
+
+    /**
+     * Lấy phim phổ biến theo bảng xếp hạng lượt xem trên Redis (ZREVRANGE), không truy vấn sắp xếp trên MySQL.
+     * Đọc dư gấp đôi để bù các phim không còn active.
+     *
+     * @param period Kỳ xếp hạng
+     * @param limit  Số phim tối đa
+     * @return List MovieCardDTO phim phổ biến (rỗng nếu bảng xếp hạng chưa có dữ liệu)
+     */
+    public List<MovieCardDTO> getPopularMoviesByLeaderboard(LeaderboardPeriod period, int limit) {
+        List<Long> movieIds = leaderboardService.getTopMovieIds(period, limit * 2);
+        if (movieIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, MovieCardDTO> movies = movieRepository.findCardsByMovieIdIn(movieIds, ACTIVE_STATUS).stream()
+                .collect(Collectors.toMap(MovieCardDTO::movieId, Function.identity()));
+        return movieIds.stream()
+                .map(movies::get)
+                .filter(Objects::nonNull)
+                .limit(limit)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Xếp hạng lại các phim nhiều lượt xem nhất theo số người xem duy nhất (HyperLogLog)
+     * trong application.home.unique-viewer-days ngày gần nhất, để lượt xem do refresh không đẩy phim lên.
+     *
+     * @return List MovieCardDTO phim phổ biến
+     */
+    private List<MovieCardDTO> getPopularMoviesByUniqueViewers() {
+        List<MovieCardDTO> candidates = movieRepository.findPopularCards(ACTIVE_STATUS, Limit.of(POPULAR_CANDIDATE_LIMIT));
+        Map<Long, Long> uniqueViewers = uniqueViewerService.countUniqueViewers(
+                candidates.stream().map(MovieCardDTO::movieId).toList(), properties.getHome().getUniqueViewerDays());
+        BoundedTopK<MovieCardDTO> topMovies = new BoundedTopK<>(MOVIE_LIST_LIMIT);
+        for (MovieCardDTO movie : candidates) {
+            topMovies.offer(movie, uniqueViewers.getOrDefault(movie.movieId(), 0L), 0L);
+        }
+        return topMovies.toSortedList();
+    }
+
     /**
      * Lấy danh sách phim trending
-     * Điều kiện: rating >= MIN_TRENDING_RATING
-     * Sắp xếp theo rating DESC, viewCount DESC
+     * Lấy từ top-K của TrendingService (điểm giảm dần theo thời gian từ lượt xem và đánh giá)
+     * Khi engine chưa có dữ liệu: rating >= MIN_TRENDING_RATING, sắp xếp theo rating DESC, viewCount DESC
      * Giới hạn: MOVIE_LIST_LIMIT phim
-     * 
-     * @param movies Danh sách phim active
-     * @return List MovieDTO phim trending
+     *
+     * @return List MovieCardDTO phim trending
      */
-    private List<MovieDTO> getTrendingMovies(List<Movie> movies) {
-        return movies.stream()
-                .filter(movie -> movie.getRating() != null && movie.getRating() >= MIN_TRENDING_RATING)
-                .sorted(Comparator
-                        .comparing(Movie::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
-                        .thenComparing(Movie::getViewCount, Comparator.nullsLast(Comparator.reverseOrder())))
+    private List<MovieCardDTO> getTrendingMovies() {
+        List<Long> trendingIds = trendingService.getTopMovieIds(properties.getTrending().getTopK());
+        if (trendingIds.isEmpty()) {
+            return movieRepository.findTrendingCards(ACTIVE_STATUS, MIN_TRENDING_RATING, Limit.of(MOVIE_LIST_LIMIT));
+        }
+        Map<Long, MovieCardDTO> movies = movieRepository.findCardsByMovieIdIn(trendingIds, ACTIVE_STATUS).stream()
+                .collect(Collectors.toMap(MovieCardDTO::movieId, Function.identity()));
+        return trendingIds.stream()
+                .map(movies::get)
+                .filter(Objects::nonNull)
                 .limit(MOVIE_LIST_LIMIT)
-                .map(MovieDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ApplicationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache dữ liệu trang chủ dùng chung giữa các node trên Redis.
+ * <ul>
+ *     <li>HOME:v2:data  - JSON của HomeResponseDTO, TTL dài (stale TTL)</li>
+ *     <li>HOME:v2:fresh - marker còn "tươi", TTL ngắn (fresh TTL)</li>
+ *     <li>HOME:v2:lock  - lock single-flight, chỉ một node tính lại khi marker hết hạn</li>
+ * </ul>
+ * Khi marker hết hạn, node lấy được lock sẽ truy vấn database, các node còn lại tiếp tục dùng dữ liệu cũ.
+ */
+@Service
+@Slf4j
+public class RedisHomeCacheService {
+
+    // Tăng version khi cấu trúc HomeResponseDTO thay đổi
+    private static final String KEY_PREFIX = "HOME:v2:";
+    private static final String DATA_KEY = KEY_PREFIX + "data";
+    private static final String FRESH_KEY = KEY_PREFIX + "fresh";
+    private static final String LOCK_KEY = KEY_PREFIX + "lock";
+    private static final byte[] FRESH_MARKER = {1};
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final Duration freshTtl;
+    private final Duration staleTtl;
+    private final Duration lockTtl;
+    private final byte[] lockOwner = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+    public RedisHomeCacheService(RedisTemplate<String, byte[]> binaryRedisTemplate, ApplicationProperties properties) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        ApplicationProperties.HomeCfg home = properties.getHome();
+        this.freshTtl = Duration.ofSeconds(home.getCacheFreshTtlSeconds());
+        this.staleTtl = Duration.ofSeconds(home.getCacheStaleTtlSeconds());
+        this.lockTtl = Duration.ofSeconds(home.getCacheLockTtlSeconds());
+    }
+
+    /**
+     * Lấy dữ liệu trang chủ từ Redis, hoặc tính lại bằng loader nếu node này giữ được lock.
+     *
+     * @param loader Hàm build dữ liệu từ database (JSON bytes)
+     * @return JSON bytes; null nếu node khác đang tính lại và Redis chưa có dữ liệu cũ
+     */
+    public byte[] getOrRebuild(Supplier<byte[]> loader) {
+        try {
+            if (Boolean.TRUE.equals(binaryRedisTemplate.hasKey(FRESH_KEY))) {
+                byte[] cached = binaryRedisTemplate.opsForValue().get(DATA_KEY);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            if (!Boolean.TRUE.equals(binaryRedisTemplate.opsForValue().setIfAbsent(LOCK_KEY, lockOwner, lockTtl))) {
+                // Node khác đang tính lại: dùng dữ liệu cũ
+                return binaryRedisTemplate.opsForValue().get(DATA_KEY);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for home cache, building locally: {}", e.getMessage());
+            return loader.get();
+        }
+
+        try {
+            byte[] data = loader.get();
+            try {
+                binaryRedisTemplate.opsForValue().set(DATA_KEY, data, staleTtl);
+                binaryRedisTemplate.opsForValue().set(FRESH_KEY, FRESH_MARKER, freshTtl);
+            } catch (DataAccessException e) {
+                log.warn("Cannot write home cache: {}", e.getMessage());
+            }
+            return data;
+        } finally {
+            releaseLock();
+        }
+    }
+
+    /**
+     * Đánh dấu dữ liệu trên Redis đã cũ, lần refresh kế tiếp sẽ tính lại.
+     */
+    public void invalidate() {
+        try {
+            binaryRedisTemplate.delete(FRESH_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Cannot invalidate home cache: {}", e.getMessage());
+        }
+    }
+
+    private void releaseLock() {
+        try {
+            binaryRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(LOCK_KEY), (Object) lockOwner);
+        } catch (DataAccessException e) {
+            log.warn("Cannot release home cache lock: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ApplicationProperties;
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.repository.MovieRepository;
+import com.example.demo.utils.BoundedTopK;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chỉ mục "phim liên quan" được tính offline ở background.
+ * Điểm giữa hai phim = cosine số người xem chung (từ watch_progress) + điểm thưởng khi cùng thể loại;
+ * phim chưa có dữ liệu xem chung được bù bằng các phim phổ biến cùng thể loại.
+ * Kết quả lưu dạng CSR trên mảng nguyên thủy (movieIds đã sắp xếp, offsets, neighbours)
+ * và được swap nguyên khối qua một field volatile, request chỉ đọc bộ nhớ.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedMoviesService {
+
+    private static final double CATEGORY_BONUS = 0.1;
+    private static final String MOVIES_SQL = "SELECT movie_id, category_id, view_count FROM movies WHERE status = 'ACTIVE'";
+    // Đọc stream theo user, mỗi user chỉ lấy các phim xem gần nhất
+    private static final String CO_VIEW_SQL = "SELECT username, movie_id FROM watch_progress ORDER BY username, updated_at DESC";
+    private static final String ACTIVE_STATUS = "ACTIVE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovieRepository movieRepository;
+    private final ApplicationProperties properties;
+
+    private volatile RelatedIndex relatedIndex = new RelatedIndex(new long[0], new int[]{0}, new long[0]);
+
+    /**
+     * Danh sách phim liên quan của movieIds[i] nằm trong neighbours[offsets[i] .. offsets[i + 1]).
+     */
+    private record RelatedIndex(long[] movieIds, int[] offsets, long[] neighbours) {
+
+        long[] neighboursOf(long movieId) {
+            int index = Arrays.binarySearch(movieIds, movieId);
+            if (index < 0) {
+                return new long[0];
+            }
+            return Arrays.copyOfRange(neighbours, offsets[index], offsets[index + 1]);
+        }
+    }
+
+    /**
+     * Lấy danh sách phim liên quan (đã tính sẵn) của một phim.
+     *
+     * @param movieId Id phim
+     * @param limit   Số phim tối đa
+     * @return List MovieCardDTO theo thứ tự độ liên quan giảm dần
+     */
+    public List<MovieCardDTO> getRelatedMovies(Long movieId, int limit) {
+        long[] neighbours = relatedIndex.neighboursOf(movieId);
+        if (neighbours.length == 0) {
+            return List.of();
+        }
+        List<Long> ids = Arrays.stream(neighbours).limit(limit).boxed().toList();
+        Map<Long, MovieCardDTO> movies = movieRepository.findCardsByMovieIdIn(ids, ACTIVE_STATUS).stream()
+                .collect(Collectors.toMap(MovieCardDTO::movieId, Function.identity()));
+        return ids.stream()
+                .map(movies::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${application.related.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding related movies index", e);
+        }
+    }
+
+    /**
+     * Build lại toàn bộ chỉ mục rồi swap một lần, request đang đọc vẫn dùng bản cũ.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int topK = properties.getRelated().getTopK();
+
+        // 1. Phim active, đánh index dày 0..n-1 theo movieId tăng dần
+        List<long[]> rows = jdbcTemplate.query(MOVIES_SQL, (rs, rowNum) -> new long[]{
+                rs.getLong("movie_id"), rs.getLong("category_id"), rs.getLong("view_count")});
+        rows.sort(Comparator.comparingLong(row -> row[0]));
+        int n = rows.size();
+        long[] movieIds = new long[n];
+        long[] categoryIds = new long[n];
+        long[] viewCounts = new long[n];
+        Map<Long, Integer> indexOf = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            movieIds[i] = rows.get(i)[0];
+            categoryIds[i] = rows.get(i)[1];
+            viewCounts[i] = rows.get(i)[2];
+            indexOf.put(movieIds[i], i);
+        }
+
+        // 2. Đếm người xem và số người xem chung từng cặp phim
+        int[] viewers = new int[n];
+        List<Map<Integer, Integer>> coViews = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            coViews.add(new HashMap<>());
+        }
+        countCoViews(indexOf, viewers, coViews);
+
+        // 3. Ứng viên theo thể loại: topK + 1 phim nhiều lượt xem nhất mỗi thể loại
+        Map<Long, BoundedTopK<Integer>> popularByCategory = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            popularByCategory.computeIfAbsent(categoryIds[i], k -> new BoundedTopK<>(topK + 1)).offer(i, viewCounts[i], 0L);
+        }
+        Map<Long, List<Integer>> categoryCandidates = new HashMap<>();
+        popularByCategory.forEach((categoryId, top) -> categoryCandidates.put(categoryId, top.toSortedList()));
+
+        // 4. Top-K hàng xóm mỗi phim, ghi liên tiếp vào mảng CSR
+        int[] offsets = new int[n + 1];
+        long[] neighbours = new long[n * topK];
+        int cursor = 0;
+        for (int i = 0; i < n; i++) {
+            offsets[i] = cursor;
+            Map<Integer, Double> scores = new HashMap<>();
+            for (Map.Entry<Integer, Integer> entry : coViews.get(i).entrySet()) {
+                int j = entry.getKey();
+                double cosine = entry.getValue() / Math.sqrt((double) viewers[i] * viewers[j]);
+                scores.put(j, cosine + (categoryIds[i] == categoryIds[j] ? CATEGORY_BONUS : 0));
+            }
+            for (int j : categoryCandidates.getOrDefault(categoryIds[i], List.of())) {
+                if (j != i) {
+                    scores.putIfAbsent(j, CATEGORY_BONUS);
+                }
+            }
+            BoundedTopK<Integer> top = new BoundedTopK<>(topK);
+            scores.forEach((j, score) -> top.offer(j, score, viewCounts[j]));
+            for (int j : top.toSortedList()) {
+                neighbours[cursor++] = movieIds[j];
+            }
+        }
+        offsets[n] = cursor;
+
+        relatedIndex = new RelatedIndex(movieIds, offsets, Arrays.copyOf(neighbours, cursor));
+        log.info("Related movies index built for {} movies ({} links) in {} ms",
+                n, cursor, System.currentTimeMillis() - start);
+    }
+
+    private void countCoViews(Map<Long, Integer> indexOf, int[] viewers, List<Map<Integer, Integer>> coViews) {
+        int maxItemsPerUser = properties.getRelated().getMaxItemsPerUser();
+        List<Integer> userMovies = new ArrayList<>(maxItemsPerUser);
+        String[] currentUser = {null};
+
+        RowCallbackHandler handler = rs -> {
+            String username = rs.getString("username");
+            if (!username.equals(currentUser[0])) {
+                addPairs(userMovies, viewers, coViews);
+                userMovies.clear();
+                currentUser[0] = username;
+            }
+            Integer index = indexOf.get(rs.getLong("movie_id"));
+            if (index != null && userMovies.size() < maxItemsPerUser) {
+                userMovies.add(index);
+            }
+        };
+        // fetchSize = Integer.MIN_VALUE: MySQL trả kết quả dạng stream, không giữ cả bảng trong bộ nhớ
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CO_VIEW_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, handler);
+        addPairs(userMovies, viewers, coViews);
+    }
+
+    private void addPairs(List<Integer> userMovies, int[] viewers, List<Map<Integer, Integer>> coViews) {
+        for (int a = 0; a < userMovies.size(); a++) {
+            int i = userMovies.get(a);
+            viewers[i]++;
+            for (int b = a + 1; b < userMovies.size(); b++) {
+                int j = userMovies.get(b);
+                coViews.get(i).merge(j, 1, Integer::sum);
+                coViews.get(j).merge(i, 1, Integer::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.Category;
+import com.example.demo.domain.Permission;
+import com.example.demo.domain.Role;
+import com.example.demo.dto.CacheStatsDTO;
+import com.example.demo.event.ReferenceDataChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Đồng bộ Hibernate second-level cache (local trên từng node) qua Redis pub/sub.
+ * Sau khi transaction commit, node thay đổi dữ liệu gửi tên entity lên channel;
+ * các node còn lại xóa region tương ứng và query cache. Node gửi đã tự cập nhật cache (READ_WRITE) nên bỏ qua.
+ */
+@Service
+@Slf4j
+public class SecondLevelCacheService implements MessageListener {
+
+    public static final String EVICT_CHANNEL = "L2_CACHE:evict";
+    private static final String MESSAGE_SEPARATOR = "|";
+    private static final String ROLE_PERMISSIONS_COLLECTION = Role.class.getName() + ".permissions";
+    private static final Map<String, Class<?>> CACHED_ENTITIES = Map.of(
+            Category.class.getSimpleName(), Category.class,
+            Role.class.getSimpleName(), Role.class,
+            Permission.class.getSimpleName(), Permission.class
+    );
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SessionFactory sessionFactory;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public SecondLevelCacheService(StringRedisTemplate stringRedisTemplate, EntityManagerFactory entityManagerFactory) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        String entityName = event.entityType().getSimpleName();
+        if (!CACHED_ENTITIES.containsKey(entityName)) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(EVICT_CHANNEL, nodeId + MESSAGE_SEPARATOR + entityName);
+        } catch (Exception e) {
+            log.error("Error publishing second-level cache eviction for {}", entityName, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        Class<?> entityType = CACHED_ENTITIES.get(body.substring(separator + 1));
+        if (entityType != null) {
+            evict(entityType);
+        }
+    }
+
+    private void evict(Class<?> entityType) {
+        org.hibernate.Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(entityType);
+        // Quan hệ role_permissions thay đổi khi Role hoặc Permission thay đổi
+        if (!Category.class.equals(entityType)) {
+            cache.evictCollectionData(ROLE_PERMISSIONS_COLLECTION);
+        }
+        cache.evictDefaultQueryRegion();
+        log.debug("Evicted second-level cache for {}", entityType.getSimpleName());
+    }
+
+    /**
+     * Thống kê hit / miss của second-level cache theo region và của query cache.
+     *
+     * @return CacheStatsDTO
+     */
+    public CacheStatsDTO getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheStatsDTO.RegionStats> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.add(CacheStatsDTO.RegionStats.of(region, regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(), regionStatistics.getPutCount()));
+            }
+        }
+        CacheStatsDTO.RegionStats queryCache = CacheStatsDTO.RegionStats.of("query-cache",
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+        return new CacheStatsDTO(regions, queryCache);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ApplicationProperties;
+import com.example.demo.event.MovieRatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Điểm trending giảm dần theo thời gian (exponential decay) cho từng phim, cập nhật O(1) mỗi sự kiện.
+ * <p>
+ * Dùng forward decay: mỗi sự kiện ở thời điểm t được cộng trọng số w * e^(λ(t - t0)) với t0 cố định,
+ * nên điểm đã lưu không cần giảm lại theo thời gian và thứ tự giữa các phim luôn đúng.
+ * Điểm thực tế tại thời điểm now = điểm lưu * e^(-λ(now - t0)).
+ * t0 được rebase về hiện tại mỗi lần lưu định kỳ nên số mũ (và điểm lưu) luôn nhỏ.
+ * <p>
+ * Vì điểm lưu chỉ tăng, top-K được duy trì chính xác bằng một mảng K phần tử cập nhật theo từng sự kiện,
+ * rail trending không phải quét hay sắp xếp cả catalog.
+ */
+@Service
+@Slf4j
+public class TrendingService {
+
+    private static final String REDIS_KEY = "TRENDING:v1";
+    private static final String EPOCH_FIELD = "_epoch";
+    // Điểm thực tế dưới ngưỡng này (đã decay hơn ~10 chu kỳ bán rã từ một lượt xem) coi như 0
+    private static final double MIN_SCORE = 0.001;
+    private static final long TEMP_KEY_TTL_MILLIS = 60_000L;
+    private static final double VIEW_WEIGHT = 1.0;
+    private static final double RATING_WEIGHT = 5.0;
+    private static final double MAX_RATING = 5.0;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final double lambdaPerMillis;
+    private final int topK;
+
+    private final ConcurrentHashMap<Long, DoubleAdder> scores = new ConcurrentHashMap<>();
+    private final ReadWriteLock rebaseLock = new ReentrantReadWriteLock();
+
+    // top-K: movieIds[i] có điểm topScores[i], size phần tử đầu hợp lệ (guarded by this)
+    private final long[] topMovieIds;
+    private final double[] topScores;
+    private int topSize;
+    // Thứ tự chỉ số theo điểm giảm dần, dùng lại giữa các lần đọc (guarded by this)
+    private final int[] topOrder;
+
+    private volatile long epochMillis = System.currentTimeMillis();
+    private final String tempKey = REDIS_KEY + ":tmp:" + UUID.randomUUID();
+
+    public TrendingService(StringRedisTemplate stringRedisTemplate, ApplicationProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        ApplicationProperties.TrendingCfg trending = properties.getTrending();
+        this.lambdaPerMillis = Math.log(2) / (trending.getHalfLifeHours() * 3_600_000.0);
+        this.topK = trending.getTopK();
+        this.topMovieIds = new long[topK];
+        this.topScores = new double[topK];
+        this.topOrder = new int[topK];
+    }
+
+    /**
+     * Cộng lượt xem (delta đã gộp từ ViewCountService).
+     */
+    public void onViews(Map<Long, Long> viewDeltas) {
+        long now = System.currentTimeMillis();
+        viewDeltas.forEach((movieId, delta) -> addScore(movieId, VIEW_WEIGHT * delta, now));
+    }
+
+    /**
+     * Cộng một lượt đánh giá sau khi transaction đánh giá commit (rollback thì không tính),
+     * điểm càng cao trọng số càng lớn.
+     */
+    @TransactionalEventListener
+    public void onRating(MovieRatedEvent event) {
+        double score = Math.max(0, Math.min(event.score(), MAX_RATING));
+        addScore(event.movieId(), RATING_WEIGHT * score / MAX_RATING, System.currentTimeMillis());
+    }
+
+    /**
+     * Danh sách phim trending theo điểm giảm dần.
+     *
+     * @param limit Số phim tối đa (không vượt quá top-K)
+     * @return List movieId
+     */
+    public synchronized List<Long> getTopMovieIds(int limit) {
+        // Insertion sort (ổn định) trên mảng chỉ số nguyên thủy dùng lại: K nhỏ và cố định, không boxing / Comparator
+        for (int i = 0; i < topSize; i++) {
+            double score = topScores[i];
+            int j = i;
+            while (j > 0 && topScores[topOrder[j - 1]] < score) {
+                topOrder[j] = topOrder[j - 1];
+                j--;
+            }
+            topOrder[j] = i;
+        }
+        int count = Math.max(0, Math.min(limit, topSize));
+        List<Long> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(topMovieIds[topOrder[i]]);
+        }
+        return result;
+    }
+
+    private void addScore(Long movieId, double weight, long now) {
+        rebaseLock.readLock().lock();
+        try {
+            DoubleAdder adder = scores.computeIfAbsent(movieId, id -> new DoubleAdder());
+            adder.add(weight * Math.exp(lambdaPerMillis * (now - epochMillis)));
+            offerTopK(movieId, adder.sum());
+        } finally {
+            rebaseLock.readLock().unlock();
+        }
+    }
+
+    // O(K) với K cố định: cập nhật nếu đã có trong top-K, ngược lại thay phần tử nhỏ nhất
+    private synchronized void offerTopK(long movieId, double score) {
+        int minIndex = -1;
+        for (int i = 0; i < topSize; i++) {
+            if (topMovieIds[i] == movieId) {
+                topScores[i] = Math.max(topScores[i], score);
+                return;
+            }
+            if (minIndex < 0 || topScores[i] < topScores[minIndex]) {
+                minIndex = i;
+            }
+        }
+        if (topSize < topK) {
+            topMovieIds[topSize] = movieId;
+            topScores[topSize] = score;
+            topSize++;
+        } else if (score > topScores[minIndex]) {
+            topMovieIds[minIndex] = movieId;
+            topScores[minIndex] = score;
+        }
+    }
+
+    /**
+     * Rebase t0 về hiện tại rồi lưu top-K lên Redis định kỳ (để khôi phục khi khởi động lại).
+     */
+    @Scheduled(fixedDelayString = "${application.trending.persist-interval-ms:300000}")
+    public void persistTopK() {
+        rebase();
+        Map<String, String> hash = new HashMap<>();
+        synchronized (this) {
+            for (int i = 0; i < topSize; i++) {
+                hash.put(String.valueOf(topMovieIds[i]), String.valueOf(topScores[i]));
+            }
+        }
+        if (hash.isEmpty()) {
+            return;
+        }
+        hash.put(EPOCH_FIELD, String.valueOf(epochMillis));
+        try {
+            // Ghi vào key tạm rồi RENAME: node khác khôi phục không bao giờ đọc phải hash rỗng / ghi dở
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.del(tempKey);
+                stringConnection.hMSet(tempKey, hash);
+                // Key tạm tự hết hạn nếu RENAME không chạy; TTL đi theo key khi RENAME nên bỏ đi sau đó
+                stringConnection.pExpire(tempKey, TEMP_KEY_TTL_MILLIS);
+                stringConnection.rename(tempKey, REDIS_KEY);
+                stringConnection.persist(REDIS_KEY);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.error("Error persisting trending scores: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreTopK() {
+        Map<Object, Object> hash;
+        try {
+            hash = stringRedisTemplate.opsForHash().entries(REDIS_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Cannot restore trending scores: {}", e.getMessage());
+            return;
+        }
+        Object epoch = hash.remove(EPOCH_FIELD);
+        if (epoch == null || hash.isEmpty()) {
+            return;
+        }
+        // Quy đổi điểm đã lưu (theo t0 cũ) sang t0 hiện tại
+        double factor = Math.exp(lambdaPerMillis * (Long.parseLong(epoch.toString()) - epochMillis));
+        rebaseLock.writeLock().lock();
+        try {
+            hash.forEach((movieId, score) -> {
+                long id = Long.parseLong(movieId.toString());
+                double value = Double.parseDouble(score.toString()) * factor;
+                DoubleAdder adder = scores.computeIfAbsent(id, k -> new DoubleAdder());
+                adder.add(value);
+                offerTopK(id, adder.sum());
+            });
+        } finally {
+            rebaseLock.writeLock().unlock();
+        }
+        rebase();
+        log.info("Restored {} trending scores", hash.size());
+    }
+
+    /**
+     * Đưa t0 về hiện tại: điểm lưu được nhân e^(-λ(now - t0)) thành điểm thực tế, nên trọng số sự kiện mới
+     * lại bắt đầu từ 1 thay vì tăng mãi theo thời gian chạy. Phim có điểm đã decay gần 0 bị gỡ khỏi map
+     * và top-K để số phim được theo dõi không tăng theo cả catalog.
+     */
+    private void rebase() {
+        long now = System.currentTimeMillis();
+        rebaseLock.writeLock().lock();
+        try {
+            double factor = Math.exp(-lambdaPerMillis * (now - epochMillis));
+            scores.values().removeIf(adder -> {
+                double rebased = adder.sumThenReset() * factor;
+                if (rebased < MIN_SCORE) {
+                    return true;
+                }
+                adder.add(rebased);
+                return false;
+            });
+            synchronized (this) {
+                int kept = 0;
+                for (int i = 0; i < topSize; i++) {
+                    double rebased = topScores[i] * factor;
+                    if (rebased >= MIN_SCORE) {
+                        topMovieIds[kept] = topMovieIds[i];
+                        topScores[kept] = rebased;
+                        kept++;
+                    }
+                }
+                topSize = kept;
+            }
+            epochMillis = now;
+        } finally {
+            rebaseLock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+import com.example.demo.utils.StripedCounter;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ghi nhận lượt xem phim. Hot path chỉ tăng bộ đếm trong bộ nhớ,
+ * scheduler gộp delta và flush xuống MySQL bằng một JDBC batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCountService {
+
+    private static final String FLUSH_SQL = "UPDATE movies SET view_count = view_count + ? WHERE movie_id = ?";
+    private static final int MAX_TRACKED_MOVIES = 200_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UniqueViewerService uniqueViewerService;
+    private final TrendingService trendingService;
+    private final LeaderboardService leaderboardService;
+    private final MovieSearchService movieSearchService;
+
+    private final StripedCounter pendingViews = new StripedCounter(MAX_TRACKED_MOVIES);
+
+    /**
+     * Ghi nhận một lượt xem (không truy cập database hay Redis).
+     * Id phim được kiểm tra với chỉ mục phim active trong bộ nhớ, id tùy ý không chiếm chỗ trong bộ đếm.
+     *
+     * @param movieId  Id phim
+     * @param viewerId Định danh người xem, dùng để đếm người xem duy nhất
+     */
+    public void recordView(Long movieId, String viewerId) {
+        if (!movieSearchService.isActiveMovie(movieId)) {
+            throw ApiInternalException.error(ErrorMessage.MOVIE_NOT_FOUND);
+        }
+        if (!pendingViews.increment(movieId)) {
+            log.warn("View counter is full, dropping view for movie {}", movieId);
+            return;
+        }
+        uniqueViewerService.recordViewer(movieId, viewerId);
+    }
+
+    /**
+     * Flush delta lượt xem xuống MySQL mỗi vài giây.
+     */
+    @Scheduled(fixedDelayString = "${application.views.flush-interval-ms:5000}")
+    public synchronized void flushViews() {
+        Map<Long, Long> deltas = pendingViews.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        deltas.forEach((movieId, delta) -> batchArgs.add(new Object[]{delta, movieId}));
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs);
+        } catch (DataAccessException e) {
+            // Cộng lại để lần flush sau thử tiếp
+            log.error("Error flushing view counts, will retry: {}", e.getMessage());
+            deltas.forEach(pendingViews::add);
+            return;
+        }
+        log.debug("Flushed view counts for {} movies", deltas.size());
+        // Chỉ cập nhật trending / leaderboard sau khi ghi database thành công, tránh cộng hai lần khi retry
+        trendingService.onViews(deltas);
+        leaderboardService.onViews(deltas);
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        flushViews();
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ApplicationProperties;
+import com.example.demo.domain.WatchProgress;
+import com.example.demo.dto.movie.ContinueWatchingDTO;
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.exceptions.ErrorMessage;
+import com.example.demo.repository.MovieRepository;
+import com.example.demo.repository.WatchProgressRepository;
+import com.example.demo.security.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lưu vị trí xem phim (heartbeat vài giây một lần từ player) theo kiểu write-behind.
+ * <ul>
+ *     <li>Hot store: Redis hash WATCH:&lt;username&gt; (field = movieId), mỗi heartbeat một round trip pipeline</li>
+ *     <li>Map dirty trong bộ nhớ chỉ giữ vị trí mới nhất cho mỗi (user, movie)</li>
+ *     <li>Scheduler flush map dirty xuống MySQL bằng một JDBC batch upsert</li>
+ * </ul>
+ * Rail "xem tiếp" đọc từ Redis, chỉ truy vấn MySQL khi Redis không có dữ liệu.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WatchProgressService {
+
+    private static final String KEY_PREFIX = "WATCH:";
+    private static final String VALUE_SEPARATOR = "|";
+    private static final String ACTIVE_STATUS = "ACTIVE";
+    private static final int MAX_PENDING = 200_000;
+    private static final int MAX_HISTORY_PER_USER = 200;
+    // Cột updated_at được gán cuối cùng để các IF phía trước còn so sánh với giá trị cũ (MySQL gán SET từ trái sang phải).
+    // Chỉ ghi đè khi bản ghi mới hơn, nên nhiều node flush lệch thứ tự vẫn giữ vị trí mới nhất.
+    private static final String UPSERT_SQL = "INSERT INTO watch_progress " +
+            "(username, movie_id, position_seconds, duration_seconds, updated_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "position_seconds = IF(VALUES(updated_at) >= updated_at, VALUES(position_seconds), position_seconds), " +
+            "duration_seconds = IF(VALUES(updated_at) >= updated_at, VALUES(duration_seconds), duration_seconds), " +
+            "updated_at = GREATEST(updated_at, VALUES(updated_at))";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final WatchProgressRepository watchProgressRepository;
+    private final MovieRepository movieRepository;
+    private final MovieSearchService movieSearchService;
+    private final ApplicationProperties properties;
+
+    private final Map<ProgressKey, Progress> pendingProgress = new ConcurrentHashMap<>();
+
+    private record ProgressKey(String username, Long movieId) {
+    }
+
+    private record Progress(Long movieId, int positionSeconds, Integer durationSeconds, long updatedAt) {
+
+        String encode() {
+            return positionSeconds + VALUE_SEPARATOR + (durationSeconds != null ? durationSeconds : "")
+                    + VALUE_SEPARATOR + updatedAt;
+        }
+
+        static Progress decode(Long movieId, String value) {
+            String[] parts = value.split("\\" + VALUE_SEPARATOR, -1);
+            return new Progress(movieId, Integer.parseInt(parts[0]),
+                    parts[1].isEmpty() ? null : Integer.valueOf(parts[1]), Long.parseLong(parts[2]));
+        }
+
+        Progress newer(Progress other) {
+            return other.updatedAt >= updatedAt ? other : this;
+        }
+    }
+
+    /**
+     * Ghi nhận vị trí xem của người dùng hiện tại.
+     * Chỉ nhận phim đang active: id tùy ý sẽ nằm trong Redis / watch_progress và làm sai dữ liệu co-view của gợi ý.
+     *
+     * @param movieId         Id phim
+     * @param positionSeconds Vị trí hiện tại (giây)
+     * @param durationSeconds Tổng thời lượng (giây), có thể null
+     */
+    public void saveProgress(Long movieId, Integer positionSeconds, Integer durationSeconds) {
+        if (positionSeconds == null || positionSeconds < 0 || (durationSeconds != null && durationSeconds <= 0)) {
+            throw new ApiInternalException(ErrorMessage.VALIDATION_ERROR, "Invalid watch position");
+        }
+        if (!movieSearchService.isActiveMovie(movieId)) {
+            throw ApiInternalException.error(ErrorMessage.MOVIE_NOT_FOUND);
+        }
+        String username = currentUsername();
+        Progress progress = new Progress(movieId, positionSeconds, durationSeconds, System.currentTimeMillis());
+
+        ProgressKey key = new ProgressKey(username, movieId);
+        if (pendingProgress.size() < MAX_PENDING || pendingProgress.containsKey(key)) {
+            pendingProgress.merge(key, progress, Progress::newer);
+        } else {
+            log.warn("Watch progress buffer is full, dropping progress of movie {}", movieId);
+        }
+
+        try {
+            long ttlSeconds = Duration.ofDays(properties.getWatch().getHistoryTtlDays()).getSeconds();
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.hSet(KEY_PREFIX + username, movieId.toString(), progress.encode());
+                stringConnection.expire(KEY_PREFIX + username, ttlSeconds);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            // Vẫn còn trong map dirty, sẽ được flush xuống MySQL
+            log.warn("Error writing watch progress to Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rail "xem tiếp" của người dùng hiện tại: các phim xem dở, mới nhất trước.
+     *
+     * @return List ContinueWatchingDTO
+     */
+    public List<ContinueWatchingDTO> getContinueWatching() {
+        String username = currentUsername();
+        int limit = properties.getWatch().getRailLimit();
+
+        List<Progress> history = readFromRedis(username);
+        if (history.isEmpty()) {
+            history = watchProgressRepository.findByUsernameOrderByUpdatedAtDesc(username, Limit.of(limit * 2)).stream()
+                    .map(p -> new Progress(p.getMovieId(), p.getPositionSeconds(), p.getDurationSeconds(), p.getUpdatedAt()))
+                    .collect(Collectors.toList());
+        }
+
+        List<Progress> inProgress = history.stream()
+                .filter(this::isInProgress)
+                .sorted(Comparator.comparingLong(Progress::updatedAt).reversed())
+                .limit(limit)
+                .toList();
+        if (inProgress.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, MovieCardDTO> movies = movieRepository.findCardsByMovieIdIn(
+                        inProgress.stream().map(Progress::movieId).toList(), ACTIVE_STATUS).stream()
+                .collect(Collectors.toMap(MovieCardDTO::movieId, Function.identity()));
+        return inProgress.stream()
+                .filter(p -> movies.containsKey(p.movieId()))
+                .map(p -> new ContinueWatchingDTO(movies.get(p.movieId()), p.positionSeconds(), p.durationSeconds(),
+                        Instant.ofEpochMilli(p.updatedAt())))
+                .collect(Collectors.toList());
+    }
+
+    private List<Progress> readFromRedis(String username) {
+        String key = KEY_PREFIX + username;
+        try {
+            Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(key);
+            List<Progress> history = new ArrayList<>(entries.size());
+            entries.forEach((field, value) ->
+                    history.add(Progress.decode(Long.valueOf((String) field), (String) value)));
+            if (history.size() > MAX_HISTORY_PER_USER) {
+                // Giữ hash nhỏ: bỏ các phim xem lâu nhất (vẫn còn trong MySQL)
+                Object[] oldest = history.stream()
+                        .sorted(Comparator.comparingLong(Progress::updatedAt))
+                        .limit(history.size() - MAX_HISTORY_PER_USER)
+                        .map(p -> p.movieId().toString())
+                        .toArray();
+                stringRedisTemplate.opsForHash().delete(key, oldest);
+            }
+            return history;
+        } catch (DataAccessException e) {
+            log.warn("Error reading watch progress from Redis, falling back to database: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private boolean isInProgress(Progress progress) {
+        if (progress.positionSeconds() <= 0) {
+            return false;
+        }
+        Integer duration = progress.durationSeconds();
+        return duration == null || progress.positionSeconds() < duration * properties.getWatch().getCompletedRatio();
+    }
+
+    /**
+     * Flush vị trí xem mới nhất của mỗi (user, movie) xuống MySQL.
+     */
+    @Scheduled(fixedDelayString = "${application.watch.flush-interval-ms:10000}")
+    public synchronized void flushProgress() {
+        if (pendingProgress.isEmpty()) {
+            return;
+        }
+        Map<ProgressKey, Progress> batch = new HashMap<>();
+        for (ProgressKey key : pendingProgress.keySet()) {
+            Progress progress = pendingProgress.remove(key);
+            if (progress != null) {
+                batch.put(key, progress);
+            }
+        }
+        List<Object[]> batchArgs = new ArrayList<>(batch.size());
+        batch.forEach((key, progress) -> batchArgs.add(new Object[]{key.username(), key.movieId(),
+                progress.positionSeconds(), progress.durationSeconds(), progress.updatedAt()}));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+            log.debug("Flushed watch progress for {} entries", batch.size());
+        } catch (DataAccessException e) {
+            // Trả lại để lần flush sau thử tiếp, giữ bản mới hơn nếu đã có heartbeat mới
+            log.error("Error flushing watch progress, will retry: {}", e.getMessage());
+            batch.forEach((key, progress) -> pendingProgress.merge(key, progress, Progress::newer));
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        flushProgress();
+    }
+
+    private String currentUsername() {
+        return SecurityUtils.getCurrentUserLogin()
+                .orElseThrow(() -> new ApiInternalException(ErrorMessage.ACCESS_DENIED));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Giữ K phần tử lớn nhất bằng min-heap kích thước cố định, so sánh trên khóa nguyên thủy
+ * (primary double, secondary long) thay vì Comparator với Double/Long boxed.
+ * Khi bằng khóa, phần tử được offer trước đứng trước (giống sort ổn định).
+ * Mỗi lần offer O(log K), không sắp xếp toàn bộ danh sách.
+ */
+public class BoundedTopK<T> {
+
+    private final int capacity;
+    private final Object[] items;
+    private final double[] primary;
+    private final long[] secondary;
+    private final long[] sequence;
+    private int size;
+    private long offered;
+
+    public BoundedTopK(int capacity) {
+        this.capacity = capacity;
+        this.items = new Object[capacity];
+        this.primary = new double[capacity];
+        this.secondary = new long[capacity];
+        this.sequence = new long[capacity];
+    }
+
+    public void offer(T item, double primaryKey, long secondaryKey) {
+        long seq = offered++;
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            set(size, item, primaryKey, secondaryKey, seq);
+            siftUp(size++);
+        } else if (greater(primaryKey, secondaryKey, seq, 0)) {
+            set(0, item, primaryKey, secondaryKey, seq);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @return Các phần tử theo thứ tự khóa giảm dần
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> toSortedList() {
+        int count = size;
+        // Heap sort tại chỗ trên chính min-heap: lần lượt đưa phần tử nhỏ nhất về cuối, mảng thành thứ tự giảm dần
+        for (int end = count - 1; end > 0; end--) {
+            swap(0, end);
+            size = end;
+            siftDown(0);
+        }
+        size = count;
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add((T) items[i]);
+        }
+        // Đảo lại thành thứ tự tăng dần: vẫn là một min-heap hợp lệ nên có thể tiếp tục offer
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            swap(i, j);
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // So sánh (p, s, seq) với phần tử ở vị trí index
+    private boolean greater(double p, long s, long seq, int index) {
+        int cmp = Double.compare(p, primary[index]);
+        if (cmp != 0) {
+            return cmp > 0;
+        }
+        if (s != secondary[index]) {
+            return s > secondary[index];
+        }
+        return seq < sequence[index];
+    }
+
+    private void set(int index, Object item, double p, long s, long seq) {
+        items[index] = item;
+        primary[index] = p;
+        secondary[index] = s;
+        sequence[index] = seq;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!greater(primary[parent], secondary[parent], sequence[parent], index)) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && greater(primary[left], secondary[left], sequence[left], right)) {
+                smallest = right;
+            }
+            if (!greater(primary[index], secondary[index], sequence[index], smallest)) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        double p = primary[a];
+        primary[a] = primary[b];
+        primary[b] = p;
+        long s = secondary[a];
+        secondary[a] = secondary[b];
+        secondary[b] = s;
+        long seq = sequence[a];
+        sequence[a] = sequence[b];
+        sequence[b] = seq;
+    }
+}
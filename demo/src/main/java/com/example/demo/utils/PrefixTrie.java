@@ -0,0 +1,87 @@
+package com.example.demo.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie lưu các từ để tìm theo tiền tố (type-ahead). Không thread-safe, caller tự đồng bộ.
+ */
+public class PrefixTrie {
+
+    private final Node root = new Node();
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private String term;
+    }
+
+    public void add(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), c -> new Node());
+        }
+        node.term = term;
+    }
+
+    /**
+     * Gỡ từ khỏi trie và dọn các node không còn dẫn tới từ nào.
+     *
+     * @return false nếu từ không có trong trie
+     */
+    public boolean remove(String term) {
+        Deque<Node> path = new ArrayDeque<>(term.length() + 1);
+        Node node = root;
+        path.push(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.get(term.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            path.push(node);
+        }
+        if (node.term == null) {
+            return false;
+        }
+        node.term = null;
+        // Đi ngược từ node lá về gốc, gỡ node rỗng khỏi node cha
+        for (int i = term.length() - 1; i >= 0; i--) {
+            Node child = path.pop();
+            if (child.term != null || !child.children.isEmpty()) {
+                break;
+            }
+            path.peek().children.remove(term.charAt(i));
+        }
+        return true;
+    }
+
+    /**
+     * Các từ bắt đầu bằng prefix, duyệt theo chiều rộng nên từ ngắn (gần prefix nhất) đứng trước.
+     *
+     * @param prefix Tiền tố
+     * @param limit  Số từ tối đa
+     */
+    public List<String> startsWith(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return result;
+        }
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(node);
+        while (!queue.isEmpty() && result.size() < limit) {
+            Node current = queue.poll();
+            if (current.term != null) {
+                result.add(current.term);
+            }
+            queue.addAll(current.children.values());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.utils;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response body đã được serialize sẵn (UTF-8 JSON) kèm bản nén gzip và strong ETag
+ * tính từ nội dung, để ghi thẳng ra response mà không phải chạy lại Jackson.
+ * Strong ETag phải khác nhau giữa các byte khác nhau nên bản gzip dùng ETag riêng (hậu tố -gz).
+ */
+@Getter
+public final class SerializedPayload {
+
+    private static final String GZIP_ETAG_SUFFIX = "-gz";
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+
+    private SerializedPayload(byte[] body, byte[] gzipBody, String hash) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+    public static SerializedPayload of(byte[] body) {
+        return new SerializedPayload(body, gzip(body), contentHash(body));
+    }
+
+    /**
+     * Tái sử dụng payload cũ nếu nội dung không đổi (cùng content hash), tránh nén lại.
+     */
+    public static SerializedPayload of(byte[] body, SerializedPayload previous) {
+        if (previous != null && Arrays.equals(previous.body, body)) {
+            return previous;
+        }
+        return of(body);
+    }
+
+    /**
+     * ETag của bản được gửi đi (gzip hoặc không nén).
+     */
+    public String getEtag(boolean gzip) {
+        return gzip ? gzipEtag : etag;
+    }
+
+    /**
+     * Kiểm tra header If-None-Match với ETag của bản được gửi đi (hỗ trợ danh sách ETag, "*" và tiền tố W/).
+     */
+    public boolean matches(String ifNoneMatch, boolean gzip) {
+        String current = getEtag(gzip);
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || current.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Client có nhận gzip không theo header Accept-Encoding, có xét q-value
+     * ("gzip;q=0" là từ chối; không nhắc tới gzip thì theo "*").
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(params);
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzipQuality = quality;
+            } else if ("*".equals(coding)) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+
+    // q-value không hợp lệ coi như 0 (không nhận)
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.length() > 2 && Character.toLowerCase(param.charAt(0)) == 'q' && param.charAt(1) == '=') {
+                try {
+                    double quality = Double.parseDouble(param.substring(2).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String contentHash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
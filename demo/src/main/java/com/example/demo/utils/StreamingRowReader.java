@@ -0,0 +1,194 @@
+package com.example.demo.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Đọc file .xlsx / .csv theo từng dòng mà không load cả file vào bộ nhớ.
+ * xlsx dùng POI event API (XSSFReader + SAX), khác với ExcelBuilder phải mở cả workbook.
+ * Ô trống được trả về null; ô ngày trong xlsx được trả về dạng yyyy-MM-dd.
+ */
+public class StreamingRowReader {
+
+    private static final char CSV_SEPARATOR = ',';
+    private static final char CSV_QUOTE = '"';
+    private static final char BOM = '\uFEFF';
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowNumber Vị trí dòng trong file (bắt đầu từ 0, tính cả dòng trống bị bỏ qua),
+         *                  dùng để báo lỗi đúng dòng người dùng nhìn thấy
+         * @param cells     Giá trị các ô theo cột
+         */
+        void handle(int rowNumber, List<String> cells);
+    }
+
+    private StreamingRowReader() {
+    }
+
+    /**
+     * Đọc sheet đầu tiên của file .xlsx.
+     */
+    public static void readXlsx(File file, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                        new RowCollector(handler), new IsoDateFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    /**
+     * Đọc file CSV (UTF-8, phân cách bằng dấu phẩy, hỗ trợ giá trị trong ngoặc kép theo RFC 4180).
+     */
+    public static void readCsv(InputStream inputStream, RowHandler handler) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            List<String> cells = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            boolean first = true;
+            boolean rowHasData = false;
+            // Dòng vật lý hiện tại và dòng bắt đầu của bản ghi (giá trị trong ngoặc kép có thể chứa xuống dòng)
+            int lineNumber = 0;
+            int rowStart = 0;
+            int c;
+            while ((c = reader.read()) != -1) {
+                char ch = (char) c;
+                if (first) {
+                    first = false;
+                    if (ch == BOM) {
+                        continue;
+                    }
+                }
+                if (ch == '\n') {
+                    lineNumber++;
+                }
+                if (quoted) {
+                    if (ch == CSV_QUOTE) {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == CSV_QUOTE) {
+                            value.append(CSV_QUOTE);
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        value.append(ch);
+                    }
+                    continue;
+                }
+                if (ch == CSV_QUOTE) {
+                    quoted = true;
+                    rowHasData = true;
+                } else if (ch == CSV_SEPARATOR) {
+                    cells.add(toCell(value));
+                    rowHasData = true;
+                } else if (ch == '\n') {
+                    if (rowHasData || !value.isEmpty()) {
+                        cells.add(toCell(value));
+                        handler.handle(rowStart, cells);
+                        cells = new ArrayList<>();
+                    }
+                    rowHasData = false;
+                    rowStart = lineNumber;
+                } else if (ch != '\r') {
+                    value.append(ch);
+                }
+            }
+            if (rowHasData || !value.isEmpty()) {
+                cells.add(toCell(value));
+                handler.handle(rowStart, cells);
+            }
+        }
+    }
+
+    private static String toCell(StringBuilder value) {
+        String cell = StringUtils.defaultIfBlank(value.toString().trim(), null);
+        value.setLength(0);
+        return cell;
+    }
+
+    // Gom các ô của một dòng, bù null cho ô trống (SAX không phát sự kiện cho ô không có dữ liệu)
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private List<String> cells;
+        private int nextColumn;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (cells.stream().anyMatch(StringUtils::isNotBlank)) {
+                handler.handle(rowNum, cells);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(StringUtils.defaultIfBlank(StringUtils.trim(formattedValue), null));
+            nextColumn = column + 1;
+        }
+    }
+
+    // Ô ngày trả về yyyy-MM-dd thay vì định dạng hiển thị của file (m/d/yy...).
+    // Locale cố định để số không bị format theo locale của JVM (vd. "4,5" với vi_VN) rồi parse sai
+    private static class IsoDateFormatter extends DataFormatter {
+
+        IsoDateFormatter() {
+            super(Locale.ROOT);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bộ đếm theo key không dùng lock: mỗi key là một {@link LongAdder} (striped cell),
+ * nhiều thread tăng cùng một key không tranh chấp trên cùng một biến.
+ * {@link #drain()} lấy ra phần tăng thêm kể từ lần drain trước mà không làm mất lượt tăng đồng thời,
+ * đồng thời gỡ các key không tăng trong suốt một chu kỳ để số key không tăng mãi.
+ */
+public class StripedCounter {
+
+    private final ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+    // Chỉ lượt gỡ key giữ write lock; thread tăng đọc lạc quan, chỉ chờ khi trùng lúc đang gỡ key
+    private final StampedLock removalLock = new StampedLock();
+    private final int maxKeys;
+
+    public StripedCounter(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Tăng bộ đếm của key thêm 1.
+     *
+     * @return false nếu key mới bị bỏ qua vì đã đạt giới hạn số key
+     */
+    public boolean increment(Long key) {
+        long stamp = removalLock.tryOptimisticRead();
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() >= maxKeys) {
+                return false;
+            }
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.increment();
+        if (stamp == 0 || !removalLock.validate(stamp)) {
+            // Trùng lúc gỡ key: counter vừa tăng có thể đã bị gỡ. Lượt tăng có thể đã được drain trước khi gỡ
+            // (thread bị dừng giữa chừng qua nhiều chu kỳ) nên không cộng lại 1, mà chuyển phần còn lại
+            // trong counter bị gỡ (không drain nào đọc nữa) sang counter mới; sumThenReset nguyên tử theo cell
+            // nên mỗi lượt chỉ được chuyển một lần dù nhiều thread cùng rơi vào đây
+            long readStamp = removalLock.readLock();
+            try {
+                if (counters.get(key) != counter) {
+                    long residue = counter.sumThenReset();
+                    if (residue != 0) {
+                        counters.computeIfAbsent(key, k -> new LongAdder()).add(residue);
+                    }
+                }
+            } finally {
+                removalLock.unlockRead(readStamp);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cộng lại phần delta (ví dụ khi flush thất bại).
+     */
+    public void add(Long key, long delta) {
+        long readStamp = removalLock.readLock();
+        try {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        } finally {
+            removalLock.unlockRead(readStamp);
+        }
+    }
+
+    /**
+     * Lấy và reset delta của tất cả key. Key có delta bằng 0 (không tăng trong cả chu kỳ) bị gỡ khỏi map;
+     * key đang được tăng vẫn được giữ để các thread đang tăng không bị mất lượt.
+     *
+     * @return Map key -> delta (chỉ các key có delta khác 0)
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        List<Long> idleKeys = new ArrayList<>();
+        counters.forEach((key, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta != 0) {
+                deltas.put(key, delta);
+            } else {
+                idleKeys.add(key);
+            }
+        });
+        if (!idleKeys.isEmpty()) {
+            long writeStamp = removalLock.writeLock();
+            try {
+                for (Long key : idleKeys) {
+                    counters.computeIfPresent(key, (k, counter) -> counter.sum() == 0 ? null : counter);
+                }
+            } finally {
+                removalLock.unlockWrite(writeStamp);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Số key đang được theo dõi.
+     */
+    public int size() {
+        return counters.size();
+    }
+}
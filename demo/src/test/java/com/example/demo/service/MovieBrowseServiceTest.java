@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.movie.MovieCardDTO;
+import com.example.demo.dto.search.CursorPage;
+import com.example.demo.enums.MovieSort;
+import com.example.demo.exceptions.ApiInternalException;
+import com.example.demo.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MovieBrowseServiceTest {
+
+    private static final Long CATEGORY_ID = 7L;
+
+    private MovieRepository movieRepository;
+    private MovieBrowseService movieBrowseService;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        movieBrowseService = new MovieBrowseService(movieRepository);
+    }
+
+    @Test
+    void nextCursorRoundTripsSortKeyAndMovieId() {
+        Instant created = Instant.parse("2024-05-01T10:15:30.123456Z");
+        stubPage(card(3L, 4.5, 100L, Instant.now()), card(2L, 4.0, 90L, created), card(1L, 3.0, 80L, Instant.now()));
+
+        CursorPage<MovieCardDTO> first = movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.NEWEST, null, 2);
+
+        assertThat(first.data()).extracting(MovieCardDTO::movieId).containsExactly(3L, 2L);
+        assertThat(first.nextCursor()).isNotNull();
+        verify(movieRepository).findCardsByCategory(CATEGORY_ID, "ACTIVE", MovieSort.NEWEST, null, null, 3);
+
+        movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.NEWEST, first.nextCursor(), 2);
+        verify(movieRepository).findCardsByCategory(CATEGORY_ID, "ACTIVE", MovieSort.NEWEST, created, 2L, 3);
+    }
+
+    @Test
+    void numericSortKeysAreDecodedWithTheirType() {
+        stubPage(card(5L, 4.5, 1000L, null), card(4L, 4.5, 900L, null));
+
+        String popular = movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.POPULAR, null, 1).nextCursor();
+        movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.POPULAR, popular, 1);
+        verify(movieRepository).findCardsByCategory(CATEGORY_ID, "ACTIVE", MovieSort.POPULAR, 1000L, 5L, 2);
+
+        String rating = movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.RATING, null, 1).nextCursor();
+        movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.RATING, rating, 1);
+        verify(movieRepository).findCardsByCategory(CATEGORY_ID, "ACTIVE", MovieSort.RATING, 4.5, 5L, 2);
+    }
+
+    @Test
+    void nullSortKeyRoundTripsAsNull() {
+        stubPage(card(9L, null, 10L, null), card(8L, null, 5L, null));
+
+        String cursor = movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.RATING, null, 1).nextCursor();
+        movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.RATING, cursor, 1);
+
+        verify(movieRepository).findCardsByCategory(CATEGORY_ID, "ACTIVE", MovieSort.RATING, null, 9L, 2);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        stubPage(card(1L, 3.0, 1L, null));
+
+        CursorPage<MovieCardDTO> page = movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.POPULAR, null, 2);
+
+        assertThat(page.data()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorOfAnotherSortIsRejected() {
+        stubPage(card(2L, 4.0, 20L, null), card(1L, 3.0, 10L, null));
+        String popular = movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.POPULAR, null, 1).nextCursor();
+
+        assertThatThrownBy(() -> movieBrowseService.browseCategory(CATEGORY_ID, MovieSort.RATING, popular, 1))
+                .isInstanceOf(ApiInternalException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String cursor : List.of("not base64!", encode("POPULAR|abc|1"), encode("POPULAR|10"),
+                encode("NEWEST|yesterday|1"), encode("POPULAR|10|x"))) {
+            assertThatThrownBy(() -> movieBrowseService.browseCategory(CATEGORY_ID, sortOf(cursor), cursor, 1))
+                    .as(cursor)
+                    .isInstanceOf(ApiInternalException.class)
+                    .hasMessage("Invalid cursor");
+        }
+        verifyNoInteractions(movieRepository);
+    }
+
+    private void stubPage(MovieCardDTO... movies) {
+        when(movieRepository.findCardsByCategory(anyLong(), anyString(), any(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> {
+                    int limit = invocation.getArgument(5);
+                    return List.of(movies).subList(0, Math.min(limit, movies.length));
+                });
+    }
+
+    private static MovieSort sortOf(String cursor) {
+        return cursor.equals(encode("NEWEST|yesterday|1")) ? MovieSort.NEWEST : MovieSort.POPULAR;
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MovieCardDTO card(Long movieId, Double rating, Long viewCount, Instant createdDate) {
+        return new MovieCardDTO(movieId, "Movie " + movieId, null, null, rating, viewCount, CATEGORY_ID, "Category",
+                createdDate);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedisTokenServiceTest {
+
+    @Test
+    void jtiRoundTripsThroughSixteenBigEndianBytes() {
+        UUID uuid = UUID.randomUUID();
+
+        byte[] bytes = RedisTokenService.jtiBytes(uuid.toString());
+
+        assertThat(bytes).hasSize(16);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertThat(buffer.getLong()).isEqualTo(uuid.getMostSignificantBits());
+        assertThat(buffer.getLong()).isEqualTo(uuid.getLeastSignificantBits());
+        assertThat(RedisTokenService.jtiString(bytes)).isEqualTo(uuid.toString());
+    }
+
+    @Test
+    void uppercaseJtiDecodesToCanonicalForm() {
+        String jti = "123E4567-E89B-12D3-A456-426614174000";
+
+        assertThat(RedisTokenService.jtiString(RedisTokenService.jtiBytes(jti))).isEqualTo(jti.toLowerCase());
+    }
+
+    @Test
+    void missingOrNonUuidJtiIsRejected() {
+        assertThatThrownBy(() -> RedisTokenService.jtiBytes(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RedisTokenService.jtiBytes("not-a-uuid")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RedisTokenService.jtiBytes("")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void storedValuesOfWrongLengthDecodeToNull() {
+        assertThat(RedisTokenService.jtiString(null)).isNull();
+        assertThat(RedisTokenService.jtiString(new byte[0])).isNull();
+        assertThat(RedisTokenService.jtiString(new byte[15])).isNull();
+        // Giá trị cũ lưu dạng chuỗi UUID (36 byte) không được giải mã nhầm
+        assertThat(RedisTokenService.jtiString(UUID.randomUUID().toString().getBytes())).isNull();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTopKTest {
+
+    private record Item(int id, double primary, long secondary) {
+    }
+
+    @Test
+    void keepsLargestItemsInDescendingOrder() {
+        BoundedTopK<String> topK = new BoundedTopK<>(3);
+        topK.offer("a", 1.0, 0);
+        topK.offer("b", 5.0, 0);
+        topK.offer("c", 3.0, 0);
+        topK.offer("d", 4.0, 0);
+        topK.offer("e", 2.0, 0);
+
+        assertThat(topK.toSortedList()).containsExactly("b", "d", "c");
+        assertThat(topK.size()).isEqualTo(3);
+    }
+
+    @Test
+    void secondaryKeyBreaksTiesThenOfferOrder() {
+        BoundedTopK<String> topK = new BoundedTopK<>(4);
+        topK.offer("first", 4.0, 10);
+        topK.offer("second", 4.0, 10);
+        topK.offer("moreViews", 4.0, 20);
+        topK.offer("lower", 3.0, 100);
+
+        assertThat(topK.toSortedList()).containsExactly("moreViews", "first", "second", "lower");
+    }
+
+    @Test
+    void negativeInfinitySortsLast() {
+        BoundedTopK<String> topK = new BoundedTopK<>(3);
+        topK.offer("missing", Double.NEGATIVE_INFINITY, Long.MIN_VALUE);
+        topK.offer("zero", 0.0, 0);
+        topK.offer("one", 1.0, 0);
+
+        assertThat(topK.toSortedList()).containsExactly("one", "zero", "missing");
+    }
+
+    @Test
+    void zeroCapacityKeepsNothing() {
+        BoundedTopK<String> topK = new BoundedTopK<>(0);
+        topK.offer("a", 1.0, 0);
+
+        assertThat(topK.toSortedList()).isEmpty();
+    }
+
+    @Test
+    void toSortedListLeavesHeapUsable() {
+        BoundedTopK<String> topK = new BoundedTopK<>(3);
+        topK.offer("a", 1.0, 0);
+        topK.offer("b", 2.0, 0);
+        topK.offer("c", 3.0, 0);
+        assertThat(topK.toSortedList()).containsExactly("c", "b", "a");
+
+        topK.offer("d", 2.5, 0);
+        topK.offer("e", 0.5, 0);
+
+        assertThat(topK.toSortedList()).containsExactly("c", "d", "b");
+        assertThat(topK.toSortedList()).containsExactly("c", "d", "b");
+    }
+
+    @Test
+    void matchesStableSortOfRandomInput() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int capacity = 1 + random.nextInt(20);
+            List<Item> items = IntStream.range(0, random.nextInt(300))
+                    .mapToObj(id -> new Item(id, random.nextInt(10), random.nextInt(5)))
+                    .toList();
+            BoundedTopK<Item> topK = new BoundedTopK<>(capacity);
+            items.forEach(item -> topK.offer(item, item.primary(), item.secondary()));
+
+            List<Item> expected = new ArrayList<>(items);
+            expected.sort(Comparator.comparingDouble(Item::primary).reversed()
+                    .thenComparing(Comparator.comparingLong(Item::secondary).reversed()));
+            assertThat(topK.toSortedList())
+                    .isEqualTo(expected.stream().limit(capacity).collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTest {
+
+    @Test
+    void startsWithReturnsShorterTermsFirst() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("phim");
+        trie.add("phimbo");
+        trie.add("pha");
+        trie.add("hanh");
+
+        assertThat(trie.startsWith("ph", 10)).containsExactly("pha", "phim", "phimbo");
+        assertThat(trie.startsWith("phim", 10)).containsExactly("phim", "phimbo");
+        assertThat(trie.startsWith("x", 10)).isEmpty();
+    }
+
+    @Test
+    void startsWithRespectsLimit() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("a");
+        trie.add("ab");
+        trie.add("abc");
+
+        assertThat(trie.startsWith("a", 2)).containsExactly("a", "ab");
+    }
+
+    @Test
+    void removeDropsOnlyThatTerm() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("phim");
+        trie.add("phimbo");
+
+        assertThat(trie.remove("phim")).isTrue();
+        assertThat(trie.startsWith("phim", 10)).containsExactly("phimbo");
+
+        assertThat(trie.remove("phimbo")).isTrue();
+        assertThat(trie.startsWith("p", 10)).isEmpty();
+    }
+
+    @Test
+    void removeOfUnknownTermOrPrefixIsNoOp() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("phimbo");
+
+        assertThat(trie.remove("phim")).isFalse();
+        assertThat(trie.remove("phimbomoi")).isFalse();
+        assertThat(trie.remove("hanh")).isFalse();
+        assertThat(trie.startsWith("phim", 10)).containsExactly("phimbo");
+    }
+
+    @Test
+    void termCanBeAddedAgainAfterRemoval() {
+        PrefixTrie trie = new PrefixTrie();
+        trie.add("hanh");
+        trie.remove("hanh");
+        trie.add("hanh");
+
+        assertThat(trie.startsWith("h", 10)).containsExactly("hanh");
+    }
+}
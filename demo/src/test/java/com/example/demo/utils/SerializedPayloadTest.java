@@ -0,0 +1,76 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializedPayloadTest {
+
+    private static final byte[] BODY = "{\"data\":[1,2,3]}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void gzipAndIdentityRepresentationsHaveDistinctStrongEtags() throws IOException {
+        SerializedPayload payload = SerializedPayload.of(BODY);
+
+        assertThat(payload.getEtag()).startsWith("\"").endsWith("\"");
+        assertThat(payload.getGzipEtag()).isNotEqualTo(payload.getEtag()).endsWith("-gz\"");
+        assertThat(payload.getEtag(false)).isEqualTo(payload.getEtag());
+        assertThat(payload.getEtag(true)).isEqualTo(payload.getGzipEtag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload.getGzipBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(BODY);
+        }
+    }
+
+    @Test
+    void sameContentKeepsEtagAndReusesPreviousPayload() {
+        SerializedPayload first = SerializedPayload.of(BODY);
+
+        assertThat(SerializedPayload.of(BODY.clone()).getEtag()).isEqualTo(first.getEtag());
+        assertThat(SerializedPayload.of(BODY.clone(), first)).isSameAs(first);
+        assertThat(SerializedPayload.of("{}".getBytes(StandardCharsets.UTF_8), first).getEtag())
+                .isNotEqualTo(first.getEtag());
+    }
+
+    @Test
+    void matchesOnlyTheEtagOfTheRepresentationSent() {
+        SerializedPayload payload = SerializedPayload.of(BODY);
+
+        assertThat(payload.matches(payload.getEtag(), false)).isTrue();
+        assertThat(payload.matches(payload.getEtag(), true)).isFalse();
+        assertThat(payload.matches(payload.getGzipEtag(), true)).isTrue();
+        assertThat(payload.matches(payload.getGzipEtag(), false)).isFalse();
+    }
+
+    @Test
+    void matchesListsWildcardAndWeakPrefix() {
+        SerializedPayload payload = SerializedPayload.of(BODY);
+
+        assertThat(payload.matches("\"other\", " + payload.getEtag() + " ,\"another\"", false)).isTrue();
+        assertThat(payload.matches("W/" + payload.getEtag(), false)).isTrue();
+        assertThat(payload.matches("*", true)).isTrue();
+        assertThat(payload.matches("\"other\", W/\"another\"", false)).isFalse();
+        assertThat(payload.matches(null, false)).isFalse();
+        assertThat(payload.matches(" ", false)).isFalse();
+    }
+
+    @Test
+    void acceptsGzipHonoursQualityValues() {
+        assertThat(SerializedPayload.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(SerializedPayload.acceptsGzip("x-gzip")).isTrue();
+        assertThat(SerializedPayload.acceptsGzip("GZIP;q=0.5")).isTrue();
+        assertThat(SerializedPayload.acceptsGzip("*")).isTrue();
+        assertThat(SerializedPayload.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(SerializedPayload.acceptsGzip("gzip; q=0.0, *")).isFalse();
+        assertThat(SerializedPayload.acceptsGzip("*;q=0")).isFalse();
+        assertThat(SerializedPayload.acceptsGzip("gzip;q=abc")).isFalse();
+        assertThat(SerializedPayload.acceptsGzip("br, deflate")).isFalse();
+        assertThat(SerializedPayload.acceptsGzip("identity")).isFalse();
+        assertThat(SerializedPayload.acceptsGzip("")).isFalse();
+        assertThat(SerializedPayload.acceptsGzip(null)).isFalse();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.utils;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingRowReaderTest {
+
+    private record ParsedRow(int rowNumber, List<String> cells) {
+    }
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void csvParsesQuotedValuesEscapedQuotesAndEmptyCells() throws Exception {
+        List<ParsedRow> rows = readCsv("movieId,title,description\n"
+                + ",\"Phim, có dấu phẩy\",\"Nói \"\"xin chào\"\"\"\n"
+                + " 12 ,  Trim me  ,\n");
+
+        assertThat(rows).containsExactly(
+                row(0, "movieId", "title", "description"),
+                row(1, null, "Phim, có dấu phẩy", "Nói \"xin chào\""),
+                row(2, "12", "Trim me", null));
+    }
+
+    @Test
+    void csvRowNumbersFollowPhysicalLinesAcrossBlankLinesAndQuotedNewlines() throws Exception {
+        List<ParsedRow> rows = readCsv("header\r\n\r\nfirst\r\n\"multi\nline\"\n\n\nlast");
+
+        assertThat(rows).containsExactly(
+                row(0, "header"),
+                row(2, "first"),
+                row(3, "multi\nline"),
+                row(7, "last"));
+    }
+
+    @Test
+    void csvSkipsByteOrderMark() throws Exception {
+        List<ParsedRow> rows = readCsv("\uFEFFtitle\nA");
+
+        assertThat(rows).containsExactly(row(0, "title"), row(1, "A"));
+    }
+
+    @Test
+    void xlsxReadsDatesAsIsoAndNumbersIndependentlyOfDefaultLocale() throws Exception {
+        File file = new File(tempDir, "movies.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("m/d/yy"));
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("title");
+            header.createCell(1).setCellValue("releaseDate");
+            header.createCell(2).setCellValue("rating");
+            Row data = sheet.createRow(3);
+            data.createCell(0).setCellValue("Phim");
+            data.createCell(1).setCellValue(LocalDate.of(2024, 2, 29));
+            data.getCell(1).setCellStyle(dateStyle);
+            data.createCell(2).setCellValue(4.5);
+            data.createCell(4).setCellValue(120);
+            workbook.write(out);
+        }
+
+        Locale defaultLocale = Locale.getDefault();
+        List<ParsedRow> rows = new ArrayList<>();
+        try {
+            // Locale dùng dấu phẩy thập phân không được làm "4.5" thành "4,5"
+            Locale.setDefault(Locale.GERMANY);
+            StreamingRowReader.readXlsx(file, (rowNumber, cells) -> rows.add(new ParsedRow(rowNumber, cells)));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        assertThat(rows).containsExactly(
+                row(0, "title", "releaseDate", "rating"),
+                row(3, "Phim", "2024-02-29", "4.5", null, "120"));
+    }
+
+    private List<ParsedRow> readCsv(String content) throws Exception {
+        List<ParsedRow> rows = new ArrayList<>();
+        StreamingRowReader.readCsv(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                (rowNumber, cells) -> rows.add(new ParsedRow(rowNumber, cells)));
+        return rows;
+    }
+
+    private static ParsedRow row(int rowNumber, String... cells) {
+        return new ParsedRow(rowNumber, Arrays.asList(cells));
+    }
+}
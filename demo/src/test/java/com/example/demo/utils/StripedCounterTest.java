@@ -0,0 +1,119 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedCounterTest {
+
+    @Test
+    void drainReturnsDeltasSinceLastDrain() {
+        StripedCounter counter = new StripedCounter(100);
+        counter.increment(1L);
+        counter.increment(1L);
+        counter.increment(2L);
+
+        assertThat(counter.drain()).isEqualTo(Map.of(1L, 2L, 2L, 1L));
+
+        counter.increment(2L);
+        assertThat(counter.drain()).isEqualTo(Map.of(2L, 1L));
+        assertThat(counter.drain()).isEmpty();
+    }
+
+    @Test
+    void idleKeysAreRemovedAfterAQuietCycle() {
+        StripedCounter counter = new StripedCounter(100);
+        counter.increment(1L);
+        counter.increment(2L);
+        counter.drain();
+        assertThat(counter.size()).isEqualTo(2);
+
+        counter.increment(2L);
+        counter.drain();
+        assertThat(counter.size()).isEqualTo(1);
+
+        counter.drain();
+        assertThat(counter.size()).isZero();
+    }
+
+    @Test
+    void newKeysAreRejectedAtCapacityButExistingKeysStillCount() {
+        StripedCounter counter = new StripedCounter(2);
+        assertThat(counter.increment(1L)).isTrue();
+        assertThat(counter.increment(2L)).isTrue();
+        assertThat(counter.increment(3L)).isFalse();
+        assertThat(counter.increment(1L)).isTrue();
+
+        assertThat(counter.drain()).isEqualTo(Map.of(1L, 2L, 2L, 1L));
+    }
+
+    @Test
+    void addCreditsDeltaBack() {
+        StripedCounter counter = new StripedCounter(100);
+        counter.increment(1L);
+        Map<Long, Long> deltas = counter.drain();
+
+        deltas.forEach(counter::add);
+        counter.increment(1L);
+
+        assertThat(counter.drain()).isEqualTo(Map.of(1L, 2L));
+    }
+
+    @Test
+    void concurrentIncrementsAreNeverLostAcrossDrainsAndRemovals() throws Exception {
+        StripedCounter counter = new StripedCounter(1000);
+        int threads = 4;
+        int incrementsPerThread = 50_000;
+        long keys = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Map<Long, Long> totals = new HashMap<>();
+        try {
+            Future<?>[] workers = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                workers[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        counter.increment((i + offset) % keys);
+                    }
+                    return null;
+                });
+            }
+            // Drain liên tục trong lúc tăng để đi qua nhánh gỡ key rỗng
+            Thread drainer = new Thread(() -> {
+                while (running.get()) {
+                    counter.drain().forEach((key, delta) -> {
+                        synchronized (totals) {
+                            totals.merge(key, delta, Long::sum);
+                        }
+                    });
+                }
+            });
+            drainer.start();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            drainer.join();
+            counter.drain().forEach((key, delta) -> totals.merge(key, delta, Long::sum));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(totals.values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo((long) threads * incrementsPerThread);
+        assertThat(totals).hasSize((int) keys);
+    }
+}
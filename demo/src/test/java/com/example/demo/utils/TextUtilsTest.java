@@ -0,0 +1,31 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextUtilsTest {
+
+    @Test
+    void foldRemovesVietnameseDiacriticsAndLowercases() {
+        assertThat(TextUtils.fold("Phim Hành Động")).isEqualTo("phim hanh dong");
+        assertThat(TextUtils.fold("ĐẤT RỪNG PHƯƠNG NAM")).isEqualTo("dat rung phuong nam");
+        assertThat(TextUtils.fold("Tiếng Việt có dấu ỹ ữ ặ")).isEqualTo("tieng viet co dau y u a");
+    }
+
+    @Test
+    void foldHandlesNullAndPrecomposedOrDecomposedInput() {
+        assertThat(TextUtils.fold(null)).isEmpty();
+        // NFC ("à" một code point) và NFD ("a" + dấu huyền rời) cho cùng kết quả
+        assertThat(TextUtils.fold("h\u00e0nh")).isEqualTo("hanh");
+        assertThat(TextUtils.fold("ha\u0300nh")).isEqualTo("hanh");
+    }
+
+    @Test
+    void tokenizeSplitsOnNonLetterOrDigit() {
+        assertThat(TextUtils.tokenize("  Nhiệm vụ: Bất khả thi 2 -- (2023)  "))
+                .containsExactly("nhiem", "vu", "bat", "kha", "thi", "2", "2023");
+        assertThat(TextUtils.tokenize("")).isEmpty();
+        assertThat(TextUtils.tokenize(null)).isEmpty();
+    }
+}